@@ -0,0 +1,84 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.benchmarks;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.rdf.model.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.unima.core.io.file.BPMN20Exporter;
+import de.unima.core.io.file.BPMN20Importer;
+
+/**
+ * Measures importing and exporting synthetic BPMN 2.0 process models.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BPMN20Benchmark {
+
+	@Param({"10", "100", "1000"})
+	private int tasks;
+	
+	private final BPMN20Importer importer = new BPMN20Importer(SyntheticData.NAMESPACE);
+	private final BPMN20Exporter exporter = new BPMN20Exporter(SyntheticData.NAMESPACE);
+	
+	private Path directory;
+	private File model;
+	private Model importedModel;
+	private File exportedModel;
+	
+	@Setup
+	public void createModel() throws Exception {
+		directory = Files.createTempDirectory("bpmn-benchmark");
+		model = SyntheticData.writeBpmnModel(directory.resolve("synthetic.bpmn"), tasks);
+		importedModel = importer.importData(model);
+		exportedModel = directory.resolve("exported.bpmn").toFile();
+	}
+	
+	@TearDown
+	public void deleteModel() {
+		SyntheticData.delete(directory);
+	}
+	
+	@Benchmark
+	public Model importData() {
+		return importer.importData(model);
+	}
+	
+	@Benchmark
+	public File exportToFile() {
+		return exporter.exportToFile(importedModel, exportedModel);
+	}
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.tdb.StoreConnection;
+import org.apache.jena.tdb.base.file.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.unima.core.domain.model.DataBucket;
+import de.unima.core.domain.model.DataPool;
+import de.unima.core.domain.model.Project;
+import de.unima.core.persistence.PersistenceService;
+import de.unima.core.persistence.PersistenceServiceFactory;
+
+/**
+ * Measures storing data buckets and loading projects.
+ * 
+ * The store is either kept in memory or in a TDB folder (parameter {@code storage}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PersistenceBenchmark {
+
+	@Param({"memory", "folder"})
+	private String storage;
+	
+	@Param({"1000", "100000"})
+	private int statements;
+	
+	@Param({"10", "100"})
+	private int dataPools;
+	
+	private Path directory;
+	private PersistenceService persistenceService;
+	private Project project;
+	private DataPool dataPool;
+	private Model data;
+	private DataBucket addedDataBucket;
+	
+	@Setup
+	public void createProject() throws Exception {
+		directory = Files.createTempDirectory("persistence-benchmark");
+		persistenceService = "folder".equals(storage) 
+				? PersistenceServiceFactory.withDataInFolder(directory) 
+				: PersistenceServiceFactory.withDataInUniqueMemory();
+		project = persistenceService.createPersistentProjectWithGeneratedId("Benchmark project");
+		for(int pool = 0; pool < dataPools; pool++){
+			dataPool = persistenceService.createPeristentDataPoolForProjectWithGeneratedId(project, "Data pool " + pool);
+		}
+		data = SyntheticData.createModel(statements);
+	}
+	
+	@TearDown
+	public void deleteStore() {
+		if("folder".equals(storage)){
+			StoreConnection.release(Location.create(directory.toString()));
+		}
+		SyntheticData.delete(directory);
+	}
+	
+	@TearDown(Level.Invocation)
+	public void removeAddedDataBucket() {
+		if(addedDataBucket != null){
+			persistenceService.removeDataBucketFromDataPool(dataPool, addedDataBucket);
+			addedDataBucket = null;
+		}
+	}
+	
+	@Benchmark
+	public DataBucket addDataAsNewDataBucketToDataPool() {
+		addedDataBucket = persistenceService.addDataAsNewDataBucketToDataPool(dataPool, "Benchmark bucket", data);
+		return addedDataBucket;
+	}
+	
+	@Benchmark
+	public Optional<Project> findProjectById() {
+		return persistenceService.findProjectById(project.getId());
+	}
+}
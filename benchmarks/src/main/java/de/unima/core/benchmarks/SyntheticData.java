@@ -0,0 +1,166 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.builder.AbstractFlowNodeBuilder;
+
+import com.google.common.base.Throwables;
+
+/**
+ * Creates synthetic logs, process models and RDF data of configurable size for the benchmarks.
+ */
+final class SyntheticData {
+
+	static final String NAMESPACE = "http://www.uni-mannheim.de/spa/benchmarks#";
+	
+	private static final String XES_NAMESPACE = "http://www.xes-standard.org/";
+	private static final String[] ACTIVITIES = {"register request", "examine casually", "check ticket", "decide", "pay compensation"};
+	private static final String[] RESOURCES = {"Pete", "Mike", "Ellen", "Sara", "Sue"};
+	private static final OffsetDateTime START = OffsetDateTime.of(2016, 1, 1, 8, 0, 0, 0, ZoneOffset.UTC);
+	private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+	
+	private SyntheticData() {}
+	
+	/**
+	 * Writes an XES log with the given number of traces, each having the given number of events.
+	 * 
+	 * @param location of the log
+	 * @param traces number of traces
+	 * @param eventsPerTrace number of events of each trace
+	 * @return the written log
+	 */
+	static File writeXesLog(Path location, int traces, int eventsPerTrace) {
+		try(final OutputStream out = Files.newOutputStream(location)){
+			final XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+			writer.writeStartDocument("UTF-8", "1.0");
+			writer.writeStartElement("log");
+			writer.writeDefaultNamespace(XES_NAMESPACE);
+			writer.writeAttribute("xes.version", "1.0");
+			writeExtension(writer, "Concept", "concept");
+			writeExtension(writer, "Time", "time");
+			writeExtension(writer, "Organizational", "org");
+			writeAttribute(writer, "string", "concept:name", "synthetic log");
+			for(int trace = 0; trace < traces; trace++){
+				writer.writeStartElement("trace");
+				writeAttribute(writer, "string", "concept:name", String.valueOf(trace));
+				for(int event = 0; event < eventsPerTrace; event++){
+					writer.writeStartElement("event");
+					writeAttribute(writer, "string", "concept:name", ACTIVITIES[event % ACTIVITIES.length]);
+					writeAttribute(writer, "string", "org:resource", RESOURCES[(trace + event) % RESOURCES.length]);
+					writeAttribute(writer, "date", "time:timestamp", 
+							START.plusDays(trace).plusMinutes(event).format(TIMESTAMP));
+					writeAttribute(writer, "int", "Costs", String.valueOf(50 * (event + 1)));
+					writer.writeEndElement();
+				}
+				writer.writeEndElement();
+			}
+			writer.writeEndElement();
+			writer.writeEndDocument();
+			writer.close();
+			return location.toFile();
+		} catch (IOException | XMLStreamException e) {
+			throw Throwables.propagate(e);
+		}
+	}
+	
+	private static void writeExtension(XMLStreamWriter writer, String name, String prefix) throws XMLStreamException {
+		writer.writeEmptyElement("extension");
+		writer.writeAttribute("name", name);
+		writer.writeAttribute("prefix", prefix);
+		writer.writeAttribute("uri", XES_NAMESPACE + prefix + ".xesext");
+	}
+	
+	private static void writeAttribute(XMLStreamWriter writer, String type, String key, String value) throws XMLStreamException {
+		writer.writeEmptyElement(type);
+		writer.writeAttribute("key", key);
+		writer.writeAttribute("value", value);
+	}
+	
+	/**
+	 * Writes a BPMN 2.0 process consisting of a start event, the given number
+	 * of sequential user tasks and an end event.
+	 * 
+	 * @param location of the model
+	 * @param tasks number of user tasks
+	 * @return the written model
+	 */
+	static File writeBpmnModel(Path location, int tasks) {
+		AbstractFlowNodeBuilder<?, ?> builder = Bpmn.createExecutableProcess("synthetic-process")
+				.name("Synthetic process")
+				.startEvent("start");
+		for(int task = 0; task < tasks; task++){
+			builder = builder.userTask("task-" + task).name(ACTIVITIES[task % ACTIVITIES.length]);
+		}
+		Bpmn.writeModelToFile(location.toFile(), builder.endEvent("end").done());
+		return location.toFile();
+	}
+	
+	/**
+	 * Creates a model with the given number of statements spread over resources
+	 * with ten properties each.
+	 * 
+	 * @param statements number of statements
+	 * @return the model
+	 */
+	static Model createModel(int statements) {
+		final Model model = ModelFactory.createDefaultModel();
+		final Property[] properties = new Property[10];
+		for(int property = 0; property < properties.length; property++){
+			properties[property] = model.createProperty(NAMESPACE, "property" + property);
+		}
+		Resource subject = null;
+		for(int statement = 0; statement < statements; statement++){
+			if(statement % properties.length == 0){
+				subject = model.createResource(NAMESPACE + "resource" + statement);
+			}
+			model.add(subject, properties[statement % properties.length], "value " + statement);
+		}
+		return model;
+	}
+	
+	/**
+	 * Deletes the directory and all files in it.
+	 * 
+	 * @param directory to be deleted
+	 */
+	static void delete(Path directory) {
+		try(final Stream<Path> paths = Files.walk(directory)){
+			paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		} catch (IOException e) {
+			throw Throwables.propagate(e);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.benchmarks;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.rdf.model.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.unima.core.io.file.XESExporter;
+import de.unima.core.io.file.XESImporter;
+
+/**
+ * Measures importing and exporting synthetic XES logs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class XESBenchmark {
+
+	@Param({"10", "100", "1000"})
+	private int traces;
+	
+	@Param({"20"})
+	private int eventsPerTrace;
+	
+	private final XESImporter importer = new XESImporter();
+	private final XESExporter exporter = new XESExporter();
+	
+	private Path directory;
+	private File log;
+	private Model importedLog;
+	private File exportedLog;
+	
+	@Setup
+	public void createLog() throws Exception {
+		directory = Files.createTempDirectory("xes-benchmark");
+		log = SyntheticData.writeXesLog(directory.resolve("synthetic.xes"), traces, eventsPerTrace);
+		importedLog = importer.importData(log);
+		exportedLog = directory.resolve("exported.xes").toFile();
+	}
+	
+	@TearDown
+	public void deleteLog() {
+		SyntheticData.delete(directory);
+	}
+	
+	@Benchmark
+	public Model importData() {
+		return importer.importData(log);
+	}
+	
+	@Benchmark
+	public File exportToFile() {
+		return exporter.exportToFile(importedLog, exportedLog);
+	}
+}
@@ -27,8 +27,14 @@ import org.slf4j.LoggerFactory;
 import org.testcontainers.containers.VirtuosoContainer;
 import virtuoso.jena.driver.VirtuosoQueryExecutionFactory;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
@@ -64,6 +70,36 @@ public class VirtuosoIntegrationTest extends BaseIntegrationTest {
 		assertThat(actualActivitiesOfBob(), is(expectedActivitiesOfBob()));
 	}
 
+	@Test
+	public void employeeActivitiesImportedInSmallBatchesOverPooledConnectionsShouldBeReceivable() throws Exception {
+		assumeNotNull(VirtuosoIntegrationTest.virtuosoContainer);
+		assumeThat(VirtuosoIntegrationTest.virtuosoContainer.isRunning(), is(true));
+
+		final SPA virtuosoSpa = SPABuilder.remote().virtuoso()
+				.url(VirtuosoIntegrationTest.virtuosoContainer.getJdbcUrl())
+				.username(VirtuosoIntegrationTest.virtuosoContainer.getUsername())
+				.password(VirtuosoIntegrationTest.virtuosoContainer.getPassword())
+				.maximumConnections(2)
+				.batchSize(100)
+				.build();
+		loadFixturesIntoVirtuoso(virtuosoSpa);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<List<Project>>> reads = new ArrayList<>();
+			for(int i = 0; i < 16; i++){
+				reads.add(executor.submit(virtuosoSpa::findAllProjects));
+			}
+			for(Future<List<Project>> read : reads){
+				assertThat(read.get(1, TimeUnit.MINUTES).isEmpty(), is(false));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(actualActivitiesOfBob(), is(expectedActivitiesOfBob()));
+	}
+
 	private void loadFixturesIntoVirtuoso(SPA remoteSpa) {
 		final Project project = remoteSpa.createProject("Mail Project");
 		final Schema bpmnSchema = remoteSpa.importSchema(getFilePath("BPMN_2.0_ontology.owl").toFile(), "RDF", "BPMN2 ontology");
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.application;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import com.google.common.base.Preconditions;
+
+import de.unima.core.domain.model.DataBucket;
+import de.unima.core.domain.model.DataPool;
+import de.unima.core.domain.model.Project;
+import de.unima.core.domain.model.Schema;
+
+/**
+ * Asynchronous view of a {@link SPA}.
+ * 
+ * <p>Each method runs the corresponding method of the {@code SPA} on the given executor
+ * and returns a {@link CompletableFuture} of its result. A failure completes the future
+ * exceptionally with the exception the {@code SPA} raised.
+ * 
+ * <p>Every call runs entirely on a single thread of the executor, so the transactions of
+ * the store begin and end on the same thread. Reads and exports run in parallel. Imports
+ * write to the store and run one after the other in the order they were submitted, since
+ * the store allows only one writer at a time; a waiting import does not occupy a thread.
+ * All views of the same {@code SPA} share one queue of imports, so this also holds for
+ * imports submitted to different views; each runs on the executor of its view.
+ * 
+ * <p>Instances are obtained by {@link SPA#async(Executor)}.
+ */
+public class AsyncSPA {
+
+	private final SPA spa;
+	private final Executor executor;
+	private final SerialExecutor writer;
+	
+	AsyncSPA(SPA spa, Executor executor, SerialExecutor writer) {
+		this.spa = Preconditions.checkNotNull(spa);
+		this.executor = Preconditions.checkNotNull(executor);
+		this.writer = Preconditions.checkNotNull(writer);
+	}
+	
+	/**
+	 * @return the blocking {@code SPA} this view runs on
+	 */
+	public SPA getSpa() {
+		return spa;
+	}
+	
+	/**
+	 * @see SPA#findProjectById(String)
+	 * @param id of the {@code Project}
+	 * @return future of the {@code Project} if found; empty otherwise
+	 */
+	public CompletableFuture<Optional<Project>> findProjectById(String id) {
+		return CompletableFuture.supplyAsync(() -> spa.findProjectById(id), executor);
+	}
+	
+	/**
+	 * @see SPA#importSchema(File, String, String)
+	 * @param input schema
+	 * @param format of the schema
+	 * @param label of the new {@code Schema}
+	 * @return future of the created {@code Schema}
+	 */
+	public CompletableFuture<Schema> importSchema(File input, String format, String label) {
+		return writer.submit(() -> spa.importSchema(input, format, label), executor);
+	}
+	
+	/**
+	 * @see SPA#importData(File, String, String, DataPool)
+	 * @param input data
+	 * @param format of the data
+	 * @param label of the new {@code DataBucket}
+	 * @param dataPool of the new {@code DataBucket}
+	 * @return future of the created {@code DataBucket}
+	 */
+	public CompletableFuture<DataBucket> importData(File input, String format, String label, DataPool dataPool) {
+		return writer.submit(() -> spa.importData(input, format, label, dataPool), executor);
+	}
+	
+	/**
+	 * @see SPA#exportSchema(Schema, String, File)
+	 * @param schema which data should be exported
+	 * @param format of the exported file
+	 * @param target where to write the result
+	 * @return future of the written file
+	 */
+	public CompletableFuture<File> exportSchema(Schema schema, String format, File target) {
+		return CompletableFuture.supplyAsync(() -> spa.exportSchema(schema, format, target), executor);
+	}
+	
+	/**
+	 * @see SPA#exportData(DataBucket, String, File)
+	 * @param bucket which data should be exported
+	 * @param format of the exported file
+	 * @param target where to write the result
+	 * @return future of the written file
+	 */
+	public CompletableFuture<File> exportData(DataBucket bucket, String format, File target) {
+		return CompletableFuture.supplyAsync(() -> spa.exportData(bucket, format, target), executor);
+	}
+	
+	/**
+	 * Runs its tasks one after the other; each on the executor it was submitted with.
+	 * 
+	 * <p>If an executor rejects a task, its future is completed exceptionally
+	 * with the {@link RejectedExecutionException} and the next task is scheduled. This
+	 * also holds if the task is scheduled by its predecessor on a thread of an executor.
+	 */
+	static final class SerialExecutor {
+		
+		private final Queue<Task> tasks = new ArrayDeque<>();
+		private Task active;
+
+		<T> CompletableFuture<T> submit(Supplier<T> operation, Executor executor) {
+			final CompletableFuture<T> result = new CompletableFuture<>();
+			execute(new Task(() -> {
+				try {
+					result.complete(operation.get());
+				} catch (Throwable e) {
+					result.completeExceptionally(e);
+				}
+			}, result, executor));
+			return result;
+		}
+		
+		private synchronized void execute(Task task) {
+			tasks.add(task);
+			if(active == null) {
+				scheduleNext();
+			}
+		}
+		
+		private synchronized void scheduleNext() {
+			while((active = tasks.poll()) != null) {
+				final Task next = active;
+				try {
+					next.executor.execute(() -> {
+						try {
+							next.operation.run();
+						} finally {
+							scheduleNext();
+						}
+					});
+					return;
+				} catch (RejectedExecutionException e) {
+					next.result.completeExceptionally(e);
+				}
+			}
+		}
+	}
+	
+	private static final class Task {
+		
+		private final Runnable operation;
+		private final CompletableFuture<?> result;
+		private final Executor executor;
+		
+		private Task(Runnable operation, CompletableFuture<?> result, Executor executor) {
+			this.operation = operation;
+			this.result = result;
+			this.executor = executor;
+		}
+	}
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.application;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import de.unima.core.domain.model.DataBucket;
+
+/**
+ * Outcome of importing several files at once; see {@link SPA#importAll}.
+ * 
+ * <p> Each file is either imported as a {@link DataBucket} or failed with the exception
+ * which prevented its import. A failing file does not affect the others.
+ */
+public final class ImportReport {
+
+	private final Map<File, DataBucket> importedDataBuckets = new LinkedHashMap<>();
+	private final Map<File, Exception> failures = new LinkedHashMap<>();
+	
+	ImportReport() {
+	}
+	
+	void imported(File input, DataBucket dataBucket) {
+		importedDataBuckets.put(input, dataBucket);
+	}
+	
+	void failed(File input, Exception failure) {
+		failures.put(input, failure);
+	}
+	
+	/**
+	 * @return data bucket of each imported file in order of their import
+	 */
+	public Map<File, DataBucket> getImportedDataBuckets() {
+		return Collections.unmodifiableMap(importedDataBuckets);
+	}
+	
+	/**
+	 * @return exception of each file which could not be parsed or stored
+	 */
+	public Map<File, Exception> getFailures() {
+		return Collections.unmodifiableMap(failures);
+	}
+	
+	public boolean hasFailures() {
+		return !failures.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ImportReport [imported=%d, failed=%s]", importedDataBuckets.size(), failures.keySet());
+	}
+}
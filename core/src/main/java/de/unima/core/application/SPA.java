@@ -19,21 +19,46 @@ import de.unima.core.domain.model.*;
 import de.unima.core.io.Importer;
 import de.unima.core.io.ImporterSupport;
 import de.unima.core.io.Key;
+import de.unima.core.io.StreamingImporter;
 import de.unima.core.io.file.FileBasedExporterSupport;
+import de.unima.core.io.file.RDFImporter;
+import de.unima.core.persistence.EventTable;
 import de.unima.core.persistence.PersistenceService;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.system.StreamOps;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+
+import com.google.common.base.Preconditions;
 
 import java.io.File;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 public class SPA {
 
+	public static final int DEFAULT_IMPORT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
 	private final PersistenceService persistenceService;
 	private final ImporterSupport importerSupport;
 	private final FileBasedExporterSupport exporterSupport;
+	private final AsyncSPA.SerialExecutor asyncWriter = new AsyncSPA.SerialExecutor();
 	
 	public SPA(PersistenceService persistenceService, ImporterSupport importerSupport, FileBasedExporterSupport exporterSupport) {
 		this.persistenceService = persistenceService;
@@ -219,6 +244,10 @@ public class SPA {
 	 * <p>
 	 * <b>Note:</b> The created {@code Schema} is persisted.
 	 * 
+	 * <p>
+	 * Schemas read by an {@link RDFImporter} are stored together with the 
+	 * ontologies they import via {@code owl:imports}.
+	 * 
 	 * @param input
 	 *            schema
 	 * @param format
@@ -230,6 +259,10 @@ public class SPA {
 	 *             if the format is not supported
 	 */
 	public Schema importSchema(File input, String format, String label) {
+		final Importer<File, Model> importer = findImporter(format);
+		if(importer instanceof RDFImporter) {
+			return persistenceService.addDataAsNewSchema(label, ((RDFImporter) importer).importOntology(input));
+		}
 		return importFile(input, format, data -> persistenceService.addDataAsNewSchema(label, data)); 
 	}
 
@@ -257,11 +290,162 @@ public class SPA {
 		return importFile(input, format, data -> persistenceService.addDataAsNewDataBucketToDataPool(dataPool, label, data));
 	}
 	
-	private <T extends Entity<String>, R extends Model> T importFile(File input, String format, Function<R, T> dataToDomainObject) {
+	/**
+	 * Imports each file as new {@link DataBucket} into given {@link DataPool}.
+	 * 
+	 * <p>The files are parsed in parallel by {@link #DEFAULT_IMPORT_PARALLELISM} threads
+	 * and stored one after the other by the calling thread.
+	 * 
+	 * @param inputs
+	 *            files with data; each file name is used as label of its {@code DataBucket}
+	 * @param format
+	 *            of all files
+	 * @param dataPool
+	 *            of the new {@code DataBuckets}
+	 * @return imported {@code DataBuckets} and failures per file
+	 * @throws IllegalArgumentException
+	 *             if the format is not supported
+	 * @see #importAll(Collection, String, DataPool, Executor, int)
+	 */
+	public ImportReport importAll(Collection<File> inputs, String format, DataPool dataPool) {
+		final ExecutorService parsers = Executors.newFixedThreadPool(DEFAULT_IMPORT_PARALLELISM, SPA::newParserThread);
+		try {
+			return importAll(inputs, format, dataPool, parsers, 2 * DEFAULT_IMPORT_PARALLELISM);
+		} finally {
+			parsers.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Imports each file as new {@link DataBucket} into given {@link DataPool}.
+	 * 
+	 * <p>The files are parsed by the given executor. The calling thread is the only one
+	 * which writes the parsed data to the store, since the store allows only one writer at a time.
+	 * At most {@code maximumParsedFiles} files are parsed or wait to be stored at the same time; 
+	 * further files are not submitted to the executor until the writer caught up.
+	 * 
+	 * <p>A file which cannot be parsed or stored, or which is rejected by the executor,
+	 * is reported as failure and does not stop the import of the other files.
+	 * 
+	 * @param inputs
+	 *            files with data; each file name is used as label of its {@code DataBucket}
+	 * @param format
+	 *            of all files
+	 * @param dataPool
+	 *            of the new {@code DataBuckets}
+	 * @param parsers
+	 *            executor parsing the files
+	 * @param maximumParsedFiles
+	 *            maximum number of files which are held in memory at the same time
+	 * @return imported {@code DataBuckets} and failures per file
+	 * @throws IllegalArgumentException
+	 *             if the format is not supported
+	 * @throws IllegalStateException
+	 *             if the calling thread is interrupted
+	 */
+	public ImportReport importAll(Collection<File> inputs, String format, DataPool dataPool, Executor parsers, int maximumParsedFiles) {
+		Preconditions.checkArgument(maximumParsedFiles > 0, "Maximum number of parsed files must be positive but was %s.", maximumParsedFiles);
+		final Importer<File, Model> importer = findImporter(format);
+		final CompletionService<ParsedFile> parsedFiles = new ExecutorCompletionService<>(parsers);
+		final ImportReport report = new ImportReport();
+		final Iterator<File> pending = inputs.iterator();
+		final Map<Future<ParsedFile>, File> parsing = new HashMap<>();
+		while(pending.hasNext() || !parsing.isEmpty()) {
+			while(parsing.size() < maximumParsedFiles && pending.hasNext()) {
+				final File input = pending.next();
+				try {
+					parsing.put(parsedFiles.submit(() -> ParsedFile.parse(importer, input)), input);
+				} catch (RejectedExecutionException e) {
+					report.failed(input, e);
+				}
+			}
+			if(!parsing.isEmpty()) {
+				storeAsNewDataBucket(takeNext(parsedFiles, parsing), dataPool, report);
+			}
+		}
+		return report;
+	}
+	
+	private void storeAsNewDataBucket(ParsedFile parsedFile, DataPool dataPool, ImportReport report) {
+		if(parsedFile.failure != null) {
+			report.failed(parsedFile.input, parsedFile.failure);
+			return;
+		}
+		try {
+			report.imported(parsedFile.input, persistenceService.addDataAsNewDataBucketToDataPool(dataPool, parsedFile.input.getName(), parsedFile.data));
+		} catch (RuntimeException e) {
+			report.failed(parsedFile.input, e);
+		}
+	}
+	
+	/**
+	 * Takes the next parsed file and removes it from the files being parsed. 
+	 * An error raised while parsing is returned as failure of the file.
+	 */
+	private static ParsedFile takeNext(CompletionService<ParsedFile> parsedFiles, Map<Future<ParsedFile>, File> parsing) {
+		try {
+			final Future<ParsedFile> parsedFile = parsedFiles.take();
+			final File input = parsing.remove(parsedFile);
+			try {
+				return parsedFile.get();
+			} catch (ExecutionException e) {
+				return new ParsedFile(input, null, e);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for parsed files.", e);
+		}
+	}
+	
+	private static Thread newParserThread(Runnable parser) {
+		final Thread thread = new Thread(parser, "spa-import-parser");
+		thread.setDaemon(true);
+		return thread;
+	}
+	
+	/**
+	 * Data of one file of {@link SPA#importAll}; or the exception raised while parsing it.
+	 */
+	private static final class ParsedFile {
+		
+		private final File input;
+		private final Model data;
+		private final Exception failure;
+		
+		private ParsedFile(File input, Model data, Exception failure) {
+			this.input = input;
+			this.data = data;
+			this.failure = failure;
+		}
+		
+		private static ParsedFile parse(Importer<File, Model> importer, File input) {
+			try {
+				final Model data = ModelFactory.createDefaultModel();
+				importInto(importer, input, StreamRDFLib.graph(data.getGraph()));
+				return new ParsedFile(input, data, null);
+			} catch (Exception e) {
+				return new ParsedFile(input, null, e);
+			}
+		}
+	}
+	
+	private <T extends Entity<String>> T importFile(File input, String format, Function<Consumer<StreamRDF>, T> dataToDomainObject) {
+		final Importer<File, Model> importer = findImporter(format);
+		return dataToDomainObject.apply(target -> importInto(importer, input, target));
+	}
+	
+	private <R extends Model> Importer<File, R> findImporter(String format) {
 		final Optional<Importer<File, R>> importer = importerSupport.findImporterByKey(Key.of(format));
-		return importer.map(imp -> imp.importData(input))
-				.map(dataToDomainObject)
-				.orElseThrow(() -> new IllegalArgumentException(String.format("Format '%s' is not supported. Must be one of %s.", format, importerSupport.listKeysAsString())));
+		return importer.orElseThrow(() -> new IllegalArgumentException(String.format("Format '%s' is not supported. Must be one of %s.", format, importerSupport.listKeysAsString())));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <R extends Model> void importInto(Importer<File, R> importer, File input, StreamRDF target) {
+		if (importer instanceof StreamingImporter) {
+			((StreamingImporter<File>) importer).importData(input, target);
+		} else {
+			StreamOps.sendGraphToStream(importer.importData(input).getGraph(), target);
+		}
 	}
 
 	/**
@@ -310,6 +494,18 @@ public class SPA {
 		return exportFile(() -> retrieveData(bucket), format, target);
 	}
 	
+	/**
+	 * Finds the columnar {@link EventTable} of the XES data of given {@code DataBucket}.
+	 * 
+	 * <p>Only available if the SPA was built with event tables; see {@link SPABuilder}.
+	 *
+	 * @param bucket which events should be returned
+	 * @return the table if present; empty otherwise
+	 */
+	public Optional<EventTable> findEventTableOfDataBucket(DataBucket bucket) {
+		return persistenceService.findEventTableOfDataBucket(bucket);
+	}
+	
 	private Model retrieveData(DataBucket bucket) {
 		return persistenceService.findDataOfDataBucket(bucket)
 				.orElseThrow(() -> new IllegalArgumentException(String.format("Could not find data for bucket '%s'", bucket)));
@@ -321,6 +517,19 @@ public class SPA {
 				.orElseThrow(() -> new IllegalArgumentException(String.format("Could not find exporter for format '%s'", format)));
 	}
 
+	/**
+	 * Returns an asynchronous view of this {@code SPA}.
+	 * 
+	 * <p>All views of this {@code SPA} share one queue of imports, which run one after the other.
+	 * 
+	 * @param executor
+	 *            which runs the calls of the view
+	 * @return view whose methods return {@link java.util.concurrent.CompletableFuture}s
+	 */
+	public AsyncSPA async(Executor executor) {
+		return new AsyncSPA(this, executor, asyncWriter);
+	}
+
 	/**
 	 * Lists all supported import formats.
 	 *  
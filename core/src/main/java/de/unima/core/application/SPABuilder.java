@@ -17,6 +17,10 @@ package de.unima.core.application;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFFormat;
 
 import com.google.common.base.Preconditions;
 
@@ -30,8 +34,13 @@ import de.unima.core.io.file.RDFImporter;
 import de.unima.core.io.file.XESExporter;
 import de.unima.core.io.file.XESImporter;
 import de.unima.core.io.file.XSDImporter;
+import de.unima.core.io.file.xes.EventOrder;
+import de.unima.core.persistence.DataCache;
+import de.unima.core.persistence.EntityCache;
+import de.unima.core.persistence.EventTables;
 import de.unima.core.persistence.PersistenceService;
 import de.unima.core.persistence.PersistenceServiceFactory;
+import de.unima.core.storage.jena.VirtuosoStore;
 
 /**
  * The SPABuilder is used to create a new instance of SPA.
@@ -141,6 +150,8 @@ public class SPABuilder {
 			private String url;
 			private String username;
 			private String password;
+			private int maximumConnections = VirtuosoStore.DEFAULT_MAXIMUM_CONNECTIONS;
+			private int batchSize = VirtuosoStore.DEFAULT_BATCH_SIZE;
 			
 			public VirtuosoBuilder url(String url) {
 				this.url = url;
@@ -156,6 +167,26 @@ public class SPABuilder {
 				this.password = password;
 				return this;
 			}
+			
+			/**
+			 * Set the maximum number of connections to Virtuoso which are open at the same time.
+			 * @param maximumConnections size of the connection pool; {@value VirtuosoStore#DEFAULT_MAXIMUM_CONNECTIONS} by default
+			 * @return this builder
+			 */
+			public VirtuosoBuilder maximumConnections(int maximumConnections) {
+				this.maximumConnections = maximumConnections;
+				return this;
+			}
+			
+			/**
+			 * Set the number of triples which are sent to Virtuoso per round trip.
+			 * @param batchSize number of triples per insert; {@value VirtuosoStore#DEFAULT_BATCH_SIZE} by default
+			 * @return this builder
+			 */
+			public VirtuosoBuilder batchSize(int batchSize) {
+				this.batchSize = batchSize;
+				return this;
+			}
 
 			@Override
 			protected void validateConfigurationParameters() {
@@ -163,12 +194,16 @@ public class SPABuilder {
 				Preconditions.checkNotNull(username);
 				Preconditions.checkArgument(!username.isEmpty());
 				Preconditions.checkNotNull(password);
-				
+				Preconditions.checkArgument(maximumConnections > 0);
+				Preconditions.checkArgument(batchSize > 0);
 			}
 
 			@Override
 			protected PersistenceService getPersistenceService() {
-				return PersistenceServiceFactory.withDataAtVirtuoso(url, username, password);
+				return PersistenceServiceFactory.withDataAtVirtuoso(VirtuosoStore.builder(url, username, password)
+						.maximumConnections(maximumConnections)
+						.batchSize(batchSize)
+						.build());
 			}
 			
 			
@@ -180,6 +215,11 @@ public class SPABuilder {
 		
 		private static final String DEFAULT_NAMESPACE = "http://www.uni-mannheim/spa/local/bpmn/";
 		private String namespace = DEFAULT_NAMESPACE;
+		private EntityCache entityCache = EntityCache.disabled();
+		private DataCache dataCache = DataCache.disabled();
+		private EventTables eventTables = EventTables.disabled();
+		private ForkJoinPool xesExportPool;
+		private EventOrder xesEventOrder = EventOrder.DOCUMENT;
 		
 		/**
 		 * Set the namespace for importers/exporters with dynamic namespace support.
@@ -193,6 +233,69 @@ public class SPABuilder {
             return (T)this;
         }
 		
+		/**
+		 * Set the cache for projects, schemas, data pools and buckets found by the SPA.
+		 * @param entityCache The cache which should be used; e.g. {@code EntityCache.withMaximumSizeAndTimeToLive(10000, 10, TimeUnit.MINUTES)}
+		 * @param <T> type of the concrete builder
+		 * @return A instance of the extending class in order to chain further methods
+		 */
+		@SuppressWarnings("unchecked")
+		public <T extends Builder> T entityCache(EntityCache entityCache) {
+			this.entityCache = Preconditions.checkNotNull(entityCache);
+			return (T)this;
+		}
+		
+		/**
+		 * Set the cache for the data of schemas and data buckets exported by the SPA.
+		 * @param dataCache The cache which should be used; e.g. {@code DataCache.withMaximumTriples(1000000)}
+		 * @param <T> type of the concrete builder
+		 * @return A instance of the extending class in order to chain further methods
+		 */
+		@SuppressWarnings("unchecked")
+		public <T extends Builder> T dataCache(DataCache dataCache) {
+			this.dataCache = Preconditions.checkNotNull(dataCache);
+			return (T)this;
+		}
+		
+		/**
+		 * Set the event tables which are materialized for data buckets with XES data.
+		 * @param eventTables The tables which should be used; e.g. {@code EventTables.inMemory()}
+		 * @param <T> type of the concrete builder
+		 * @return A instance of the extending class in order to chain further methods
+		 */
+		@SuppressWarnings("unchecked")
+		public <T extends Builder> T eventTables(EventTables eventTables) {
+			this.eventTables = Preconditions.checkNotNull(eventTables);
+			return (T)this;
+		}
+		
+		/**
+		 * Set the pool on which chunks of traces are retrieved and built when exporting XES.
+		 * By default, they are retrieved and built on the exporting thread. With a pool, the exported
+		 * data is copied once into a read-only snapshot in memory which is queried by the pool.
+		 * @param pool The pool which should be used; e.g. {@code ForkJoinPool.commonPool()}
+		 * @param <T> type of the concrete builder
+		 * @return A instance of the extending class in order to chain further methods
+		 */
+		@SuppressWarnings("unchecked")
+		public <T extends Builder> T xesExportPool(ForkJoinPool pool) {
+			this.xesExportPool = Preconditions.checkNotNull(pool);
+			return (T)this;
+		}
+		
+		/**
+		 * Set the order of the events of each trace when exporting XES.
+		 * By default, events are exported in the order of the imported document.
+		 * @param eventOrder The order which should be used; e.g. {@code EventOrder.TIMESTAMP}
+		 * @param <T> type of the concrete builder
+		 * @return A instance of the extending class in order to chain further methods
+		 */
+		@SuppressWarnings("unchecked")
+		public <T extends Builder> T xesEventOrder(EventOrder eventOrder) {
+			this.xesEventOrder = Preconditions.checkNotNull(eventOrder);
+			return (T)this;
+		}
+		
 		/**
 		 * Creates the SPA instance based on the set configuration
 		 * parameters.
@@ -203,7 +306,7 @@ public class SPABuilder {
 		public SPA build() throws IllegalArgumentException {
 			validateNamespace();
 			validateConfigurationParameters();
-			return createSpa(getPersistenceService());
+			return createSpa(getPersistenceService().withEntityCache(entityCache).withDataCache(dataCache).withEventTables(eventTables));
 	    }
 		
 		protected abstract void validateConfigurationParameters();
@@ -234,6 +337,8 @@ public class SPABuilder {
 			importerSupport.addImporter(new XSDImporter(), "XSD");
 			importerSupport.addImporter(new XESImporter(), "XES");
 			importerSupport.addImporter(new RDFImporter(), "RDF");
+			importerSupport.addImporter(new RDFImporter(Lang.RDFTHRIFT), "RDF/THRIFT");
+			importerSupport.addImporter(new RDFImporter(Lang.RDFTHRIFT), "RDF/THRIFT.GZ");
 			return importerSupport;
 		}
 		
@@ -241,7 +346,9 @@ public class SPABuilder {
 			final FileBasedExporterSupport exporters = new FileBasedExporterSupport();
 			exporters.addExporter(new BPMN20Exporter(namespace), "BPMN2");
 			exporters.addExporter(new RDFExporter(), "RDF");
-			exporters.addExporter(new XESExporter(), "XES");
+			RDFExporter.STREAMING_FORMATS.forEach((key, format) -> exporters.addExporter(new RDFExporter(format), key));
+			exporters.addExporter(new RDFExporter(RDFFormat.RDF_THRIFT, true), "RDF/THRIFT.GZ");
+			exporters.addExporter(xesExportPool == null ? new XESExporter(xesEventOrder) : new XESExporter(xesEventOrder, xesExportPool), "XES");
 			return exporters;
 		}
 	}
@@ -19,6 +19,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.apache.jena.ext.com.google.common.collect.Maps;
@@ -38,6 +39,7 @@ public class DataPool extends AbstractEntity<String> {
 
 	private final Map<String, DataBucket> buckets;
 	private Project project;
+	private Supplier<List<DataBucket>> dataBucketLoader;
 	
 	public DataPool(String id){
 		this(id, null, null);
@@ -72,7 +74,7 @@ public class DataPool extends AbstractEntity<String> {
 	 * @return true if successful; false otherwise
 	 */
 	public boolean addDataBucket(DataBucket bucket){
-		buckets.put(bucket.getId(), bucket);
+		dataBuckets().put(bucket.getId(), bucket);
 		return true;
 	}
 
@@ -83,7 +85,7 @@ public class DataPool extends AbstractEntity<String> {
 	 * @return true if successful; false otherwise
 	 */
 	public Optional<DataBucket> removeDataBucketById(String id){
-		return Optional.ofNullable(buckets.remove(id));
+		return Optional.ofNullable(dataBuckets().remove(id));
 	}
 
 	/**
@@ -93,7 +95,7 @@ public class DataPool extends AbstractEntity<String> {
 	 * @return found {@code DataBucket} or empty 
 	 */
 	public Optional<DataBucket> findDataBucketById(String id){
-		return Optional.ofNullable(buckets.get(id));
+		return Optional.ofNullable(dataBuckets().get(id));
 	}
 	
 	/**
@@ -103,20 +105,42 @@ public class DataPool extends AbstractEntity<String> {
 	 * @return which have been removed from the pool
 	 */
 	public List<DataBucket> replaceDataBuckets(List<DataBucket> buckets){
-		final List<DataBucket> removedBuckets = this.buckets.entrySet().stream().map(entry -> entry.getValue()).collect(Collectors.toList());
-		this.buckets.clear();
-		buckets.forEach(bucket -> this.buckets.put(bucket.getId(), bucket));
+		final List<DataBucket> removedBuckets = dataBuckets().entrySet().stream().map(entry -> entry.getValue()).collect(Collectors.toList());
+		dataBuckets().clear();
+		buckets.forEach(bucket -> dataBuckets().put(bucket.getId(), bucket));
 		removedBuckets.removeAll(buckets);
 		return removedBuckets;
 	}
     
+	/**
+	 * Defers loading the {@code DataBucket}s of this pool until they are accessed first.
+	 * 
+	 * The buckets returned by the loader replace the current buckets. Thus, the loader
+	 * is expected to return the loaded counterparts of the current buckets.
+	 * 
+	 * @param loader returning the loaded {@code DataBucket}s
+	 */
+	public void loadDataBucketsOnFirstAccess(Supplier<List<DataBucket>> loader){
+		this.dataBucketLoader = loader;
+	}
+	
+	private synchronized Map<String, DataBucket> dataBuckets(){
+		if(dataBucketLoader != null){
+			final List<DataBucket> loadedBuckets = dataBucketLoader.get();
+			dataBucketLoader = null;
+			buckets.clear();
+			loadedBuckets.forEach(bucket -> buckets.put(bucket.getId(), bucket));
+		}
+		return buckets;
+	}
+	
 	/**
 	 * Retrieves all {@code DataBucket}s in this pool.
 	 * 
 	 * @return list of contained data buckets
 	 */
 	public List<DataBucket> getDataBuckets(){
-		return ImmutableList.<DataBucket>builder().addAll(buckets.values()).build();
+		return ImmutableList.<DataBucket>builder().addAll(dataBuckets().values()).build();
 	}
 	
 	/**
@@ -17,6 +17,8 @@ package de.unima.core.domain.model;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Repository for {@link Entity}s. 
@@ -49,6 +51,30 @@ public interface EntityRepository<T extends Entity<R>, R> {
 	 * @return list of entities
 	 */
 	public List<T> findAll();
+	
+	/**
+	 * Finds one page of all entities ordered by their ids.
+	 * 
+	 * @param offset
+	 *            number of entities to skip
+	 * @param limit
+	 *            maximum number of entities in the page
+	 * @return list of entities; empty if the page is beyond the last entity
+	 */
+	public List<T> findAll(long offset, int limit);
+	
+	/**
+	 * Passes all entities ordered by their ids as lazily created stream to the query.
+	 * 
+	 * The stream must not be used after the query returned.
+	 * 
+	 * @param query
+	 *            consuming the stream of entities
+	 * @param <S>
+	 *            type of the query result
+	 * @return result of the query
+	 */
+	public <S> S streamAll(Function<? super Stream<T>, S> query);
 
 	/**
 	 * Finds entity with given id.
@@ -58,6 +84,15 @@ public interface EntityRepository<T extends Entity<R>, R> {
 	 * @return the entity; empty otherwise
 	 */
 	public Optional<T> findById(R id);
+	
+	/**
+	 * Finds the entities with given ids at once.
+	 * 
+	 * @param ids
+	 *            of the entities
+	 * @return found entities in the order of the ids; entities which are not found are omitted
+	 */
+	public List<T> findAllById(List<R> ids);
 
 	/**
 	 * Deletes all entities.
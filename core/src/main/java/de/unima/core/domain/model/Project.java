@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.apache.jena.ext.com.google.common.collect.Maps;
@@ -34,6 +35,7 @@ public class Project extends AbstractEntity<String>{
 	private final Repository repository;
 	private final Map<String, DataPool> datapools;
 	private final Map<String, Schema> schemas;
+	private Supplier<List<DataPool>> dataPoolLoader;
 	
 	public Project(String id){
 		this(id, null, null);
@@ -72,7 +74,7 @@ public class Project extends AbstractEntity<String>{
 	 * @return true if successful; false otherwise
 	 */
 	public boolean addDataPool(DataPool dataPool){
-		datapools.put(dataPool.getId(), dataPool);
+		dataPools().put(dataPool.getId(), dataPool);
 		return true;
 	}
 	
@@ -83,20 +85,42 @@ public class Project extends AbstractEntity<String>{
 	 * @return data pools which have been removed from the project
 	 */
 	public List<DataPool> replaceDataPools(List<DataPool> datapools){
-		final List<DataPool> removedPools = this.datapools.entrySet().stream().map(entry -> entry.getValue()).collect(Collectors.toList());
-		this.datapools.clear();
-		datapools.forEach(datapool -> this.datapools.put(datapool.getId(), datapool));
+		final List<DataPool> removedPools = dataPools().entrySet().stream().map(entry -> entry.getValue()).collect(Collectors.toList());
+		dataPools().clear();
+		datapools.forEach(datapool -> dataPools().put(datapool.getId(), datapool));
 		removedPools.removeAll(datapools);
 		return removedPools;
 	}
 	
+	/**
+	 * Defers loading the {@code DataPool}s of this project until they are accessed first.
+	 * 
+	 * The pools returned by the loader replace the current pools. Thus, the loader
+	 * is expected to return the loaded counterparts of the current pools.
+	 * 
+	 * @param loader returning the loaded {@code DataPool}s
+	 */
+	public void loadDataPoolsOnFirstAccess(Supplier<List<DataPool>> loader){
+		this.dataPoolLoader = loader;
+	}
+	
+	private synchronized Map<String, DataPool> dataPools(){
+		if(dataPoolLoader != null){
+			final List<DataPool> loadedPools = dataPoolLoader.get();
+			dataPoolLoader = null;
+			datapools.clear();
+			loadedPools.forEach(pool -> datapools.put(pool.getId(), pool));
+		}
+		return datapools;
+	}
+	
 	/**
 	 * Returns {@code DataPool}s which belong to this project.
 	 * 
 	 * @return All {@code DataPool}s
 	 */
 	public List<DataPool> getDataPools(){
-		return ImmutableList.<DataPool>builder().addAll(datapools.values()).build();
+		return ImmutableList.<DataPool>builder().addAll(dataPools().values()).build();
 	}
 	
 	/**
@@ -106,7 +130,7 @@ public class Project extends AbstractEntity<String>{
 	 * @return the pool if found; empty otherwise
 	 */
 	public Optional<DataPool> findDataPoolById(String id){
-		return Optional.ofNullable(datapools.get(id));
+		return Optional.ofNullable(dataPools().get(id));
 	}
 	
 	/**
@@ -116,7 +140,7 @@ public class Project extends AbstractEntity<String>{
 	 * @return the pool if found; empty otherwise
 	 */
 	public Optional<DataPool> removeDataPoolById(String id){
-		return Optional.ofNullable(datapools.remove(id));
+		return Optional.ofNullable(dataPools().remove(id));
 	}
 	
 	/**
@@ -125,8 +149,8 @@ public class Project extends AbstractEntity<String>{
 	 * @return removed {@code DataPool}s
 	 */
 	public List<DataPool> removeAllDataPools(){
-		final List<DataPool> removedPools = datapools.entrySet().stream().map(Entry::getValue).collect(Collectors.toList());
-		datapools.clear();
+		final List<DataPool> removedPools = dataPools().entrySet().stream().map(Entry::getValue).collect(Collectors.toList());
+		dataPools().clear();
 		return removedPools;
 	}
 	
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.io;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+
+/**
+ * {@code StreamingImporter} converts data into RDF without materialising the
+ * result. Triples are passed to a {@link StreamRDF} as soon as they have been
+ * created, e.g. straight into the target graph of the store.
+ * 
+ * @param <T> source of the importer
+ */
+public interface StreamingImporter<T> extends Importer<T, Model> {
+	
+	/**
+	 * Converts the data source and passes the resulting triples to given target.
+	 * 
+	 * @param dataSource which should be converted
+	 * @param target receiving the converted triples
+	 */
+	void importData(T dataSource, StreamRDF target);
+	
+	/**
+	 * Converts the data source into a new in-memory {@code Model}.
+	 */
+	@Override
+	default Model importData(T dataSource) {
+		final Model data = ModelFactory.createDefaultModel();
+		importData(dataSource, StreamRDFLib.graph(data.getGraph()));
+		return data;
+	}
+}
@@ -16,8 +16,6 @@
 package de.unima.core.io.file;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.List;
 
 import org.apache.jena.ontology.Individual;
@@ -61,14 +59,11 @@ import org.camunda.bpm.model.bpmn.instance.bpmndi.BpmnShape;
 import org.camunda.bpm.model.bpmn.instance.dc.Bounds;
 import org.camunda.bpm.model.bpmn.instance.di.Waypoint;
 
-import com.google.common.base.Throwables;
-import com.google.common.io.Resources;
 
 public class BPMN20Exporter implements FileBasedExporter<Model> {
 	
     private final String individualNameSpace;
     
-    private static final String SCHEMAPATH = "ontologies/BPMN_2.0_ontology.owl";
     private static final String SCHEMA_NAMESPACE = "http://dkm.fbk.eu/index.php/BPMN2_Ontology#";
     
     public BPMN20Exporter(String individualNameSpace) {
@@ -81,12 +76,7 @@ public class BPMN20Exporter implements FileBasedExporter<Model> {
 	public File exportToFile(Model data, File location) {
 	  OntModel dataOntModel = ModelFactory.createOntologyModel(OntModelSpec.OWL_DL_MEM, data);
 		 //Preparing jena models
-	    OntModel schemaModel = ModelFactory.createOntologyModel(new OntModelSpec(OntModelSpec.OWL_MEM));
-		try (InputStream schemaInputStream = Resources.asByteSource(Resources.getResource(SCHEMAPATH)).openBufferedStream()){
-			schemaModel.read(schemaInputStream, null);
-		} catch (IOException e) {
-			throw Throwables.propagate(e);
-		}
+	    OntModel schemaModel = BundledOntologies.bpmn20();
 	    schemaModel.addSubModel(data);
 	    
 	    
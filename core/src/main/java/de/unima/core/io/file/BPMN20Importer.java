@@ -61,7 +61,6 @@ public class BPMN20Importer implements FileBasedImporter<Model> {
     
     private final String individualNameSpace;
     
-    private static final String SCHEMAPATH = "ontologies/BPMN_2.0_ontology.owl";
     private static final String SCHEMA_NAMESPACE = "http://dkm.fbk.eu/index.php/BPMN2_Ontology#";
     
     public BPMN20Importer(String individualNameSpace) {
@@ -71,8 +70,7 @@ public class BPMN20Importer implements FileBasedImporter<Model> {
     @Override
     public Model importData(File bpmnSource) {
     //Preparing jena models
-      OntModel schemaModel = ModelFactory.createOntologyModel(new OntModelSpec(OntModelSpec.OWL_MEM));
-      schemaModel.read(SCHEMAPATH);
+      OntModel schemaModel = BundledOntologies.bpmn20();
       
       OntModel ontModelInstance = ModelFactory.createOntologyModel(new OntModelSpec(OntModelSpec.OWL_MEM));
       schemaModel.addSubModel(ontModelInstance);
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.io.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.ontology.OntDocumentManager;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.ontology.OntModelSpec;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.graph.GraphReadOnly;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.base.Throwables;
+import com.google.common.io.Resources;
+
+/**
+ * Process-wide registry of the ontologies which are bundled with SPA.
+ * 
+ * <p> Each ontology is parsed once on first use. Afterwards, each call returns
+ * a new {@link OntModel} which is a cheap read-only view of the shared graph.
+ * Thus, the views can be used by multiple threads at the same time. Adding
+ * statements to a view fails; however, sub models may be added.
+ */
+public final class BundledOntologies {
+	
+	private static final String BPMN20_PATH = "ontologies/BPMN_2.0_ontology.owl";
+	private static final String XES_PATH = "ontologies/xes.owl";
+	private static final String XES_XSD_PATH = "xml/xes.xsd";
+	
+	private static final OntModelSpec VIEW_SPEC = createSpecWithoutImports();
+	
+	private static final Supplier<Graph> BPMN20 = Suppliers.memoize(() -> readOntology(BPMN20_PATH));
+	private static final Supplier<Graph> XES = Suppliers.memoize(() -> readOntology(XES_PATH));
+	private static final Supplier<Graph> XES_FROM_XSD = Suppliers.memoize(() -> convertXsd(XES_XSD_PATH));
+
+	private BundledOntologies() {
+	}
+
+	/**
+	 * @return BPMN 2.0 ontology
+	 */
+	public static OntModel bpmn20() {
+		return createView(BPMN20.get());
+	}
+	
+	/**
+	 * @return XES ontology as used by the XES exporter
+	 */
+	public static OntModel xes() {
+		return createView(XES.get());
+	}
+	
+	/**
+	 * @return ontology converted from the XES XML schema as used by the XES importer
+	 */
+	public static OntModel xesFromXsd() {
+		return createView(XES_FROM_XSD.get());
+	}
+	
+	private static OntModel createView(Graph ontology) {
+		return ModelFactory.createOntologyModel(VIEW_SPEC, ModelFactory.createModelForGraph(ontology));
+	}
+
+	/**
+	 * Imports are resolved once when the ontology is read. Thus, views must not
+	 * try to load them again.
+	 */
+	private static OntModelSpec createSpecWithoutImports() {
+		final OntDocumentManager documentManager = new OntDocumentManager();
+		documentManager.setProcessImports(false);
+		final OntModelSpec spec = new OntModelSpec(OntModelSpec.OWL_MEM);
+		spec.setDocumentManager(documentManager);
+		return spec;
+	}
+	
+	private static Graph readOntology(String resourceName) {
+		final OntModel ontology = ModelFactory.createOntologyModel(new OntModelSpec(OntModelSpec.OWL_MEM));
+		try (InputStream stream = openStream(resourceName)){
+			ontology.read(stream, null);
+		} catch (IOException e) {
+			throw Throwables.propagate(e);
+		}
+		return freeze(ontology);
+	}
+	
+	private static Graph convertXsd(String resourceName) {
+		try (InputStream stream = openStream(resourceName)){
+			return freeze(new XSDImporter().importData(stream));
+		} catch (IOException e) {
+			throw Throwables.propagate(e);
+		}
+	}
+	
+	private static Graph freeze(OntModel ontology) {
+		final Model copy = ModelFactory.createDefaultModel().add(ontology);
+		copy.setNsPrefixes(ontology);
+		return new GraphReadOnly(copy.getGraph());
+	}
+	
+	private static InputStream openStream(String resourceName) throws IOException {
+		return Resources.asByteSource(Resources.getResource(resourceName)).openBufferedStream();
+	}
+}
@@ -15,24 +15,89 @@
  *******************************************************************************/
 package de.unima.core.io.file;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamOps;
+import org.apache.jena.riot.system.StreamRDFWriter;
 
+import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
 
+/**
+ * Exports data as RDF file.
+ * 
+ * <p> By default the data is written as plain (non-abbreviated) RDF/XML. Formats which can be written triple by triple, 
+ * like N-Triples, Turtle blocks or RDF Thrift, are streamed to the file; the data is never
+ * held a second time in memory. Any other format is written by Jena's {@link RDFDataMgr}.
+ * 
+ * <p> Optionally, the file is compressed with gzip. Gzipped RDF Thrift is the most compact
+ * format to move data buckets between SPA instances; it is read by {@link RDFImporter}.
+ */
 public class RDFExporter implements FileBasedExporter<Model>{
 
+	/**
+	 * Export format keys of the streaming formats; see {@link de.unima.core.application.SPABuilder}.
+	 */
+	public static final Map<String, RDFFormat> STREAMING_FORMATS = ImmutableMap.of(
+			"RDF/NT", RDFFormat.NTRIPLES,
+			"RDF/NQ", RDFFormat.NQUADS,
+			"RDF/TTL", RDFFormat.TURTLE_BLOCKS,
+			"RDF/THRIFT", RDFFormat.RDF_THRIFT);
+	
+	private static final int BUFFER_SIZE = 1 << 16;
+	
+	private final RDFFormat format;
+	private final boolean isCompressed;
+	
+	public RDFExporter() {
+		this(RDFFormat.RDFXML_PLAIN);
+	}
+	
+	public RDFExporter(RDFFormat format) {
+		this(format, false);
+	}
+	
+	/**
+	 * @param format of the exported files
+	 * @param isCompressed whether the exported files are compressed with gzip
+	 */
+	public RDFExporter(RDFFormat format, boolean isCompressed) {
+		this.format = Preconditions.checkNotNull(format);
+		this.isCompressed = isCompressed;
+	}
+	
 	@Override
 	public File exportToFile(Model data, File location) {
-		try(FileOutputStream fos = new FileOutputStream(location)){
-			data.write(fos);
+		try(OutputStream out = open(location)){
+			if(StreamRDFWriter.registered(format)) {
+				StreamOps.graphToStream(data.getGraph(), StreamRDFWriter.getWriterStream(out, format));
+			} else {
+				RDFDataMgr.write(out, data, format);
+			}
 			return location;
 		} catch (IOException e) {
 			throw Throwables.propagate(e);
 		}
 	}
+	
+	private OutputStream open(File location) throws IOException {
+		final OutputStream out = new BufferedOutputStream(Files.newOutputStream(location.toPath()), BUFFER_SIZE);
+		try {
+			return isCompressed ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+		} catch (IOException e) {
+			out.close();
+			throw e;
+		}
+	}
 
 }
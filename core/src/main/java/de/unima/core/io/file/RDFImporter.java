@@ -15,19 +15,99 @@
  *******************************************************************************/
 package de.unima.core.io.file;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 import org.apache.jena.ontology.OntModel;
 import org.apache.jena.ontology.OntModelSpec;
+import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.system.StreamRDF;
 
-public class RDFImporter implements FileBasedImporter<OntModel> {
+import com.google.common.base.Throwables;
+
+import de.unima.core.io.StreamingImporter;
+
+/**
+ * Imports RDF files.
+ * 
+ * <p> The file is parsed by Jena's RIOT and its triples are passed on as they are read.
+ * Unless the syntax is given, it is derived from the file extension, e.g. {@code .nt}, {@code .ttl} 
+ * or {@code .rdf}; files with an unknown extension are read as RDF/XML. Files compressed with gzip
+ * are decompressed first, e.g. {@code data.nt.gz} or the snapshots written by {@link RDFExporter}.
+ */
+public class RDFImporter implements FileBasedImporter<Model>, StreamingImporter<File> {
+
+	private static final String GZIP_EXTENSION = ".gz";
+	private static final int GZIP_MAGIC = 0x8b1f;
+	private static final int BUFFER_SIZE = 1 << 16;
+	
+	private final Optional<Lang> lang;
+	
+	public RDFImporter() {
+		this.lang = Optional.empty();
+	}
+	
+	/**
+	 * @param lang syntax of all imported files
+	 */
+	public RDFImporter(Lang lang) {
+		this.lang = Optional.of(lang);
+	}
 
 	@Override
-	public OntModel importData(File rdfSource) {
-		OntModel m = ModelFactory.createOntologyModel(new OntModelSpec(OntModelSpec.OWL_MEM));
-	    m.read(rdfSource.toURI().toString());
-	    return m;
+	public void importData(File rdfSource, StreamRDF target) {
+		try(InputStream in = open(rdfSource)){
+			RDFDataMgr.parse(target, in, rdfSource.toURI().toString(), lang.orElseGet(() -> langOf(rdfSource)));
+		} catch (IOException e) {
+			throw Throwables.propagate(e);
+		}
+	}
+	
+	/**
+	 * Reads the file and its imports into an {@link OntModel} using {@link OntModelSpec#OWL_MEM}.
+	 * 
+	 * <p> Only needed if the ontology API is used on the imported data; 
+	 * otherwise use {@link #importData(File, StreamRDF)}.
+	 * 
+	 * @param rdfSource file with an ontology
+	 * @return ontology of the file
+	 */
+	public OntModel importOntology(File rdfSource) {
+		final OntModel ontology = ModelFactory.createOntologyModel(new OntModelSpec(OntModelSpec.OWL_MEM));
+		ontology.add(importData(rdfSource));
+		ontology.loadImports();
+		return ontology;
+	}
+	
+	private static Lang langOf(File rdfSource) {
+		final String name = rdfSource.getName();
+		return RDFLanguages.filenameToLang(name.endsWith(GZIP_EXTENSION) ? name.substring(0, name.length() - GZIP_EXTENSION.length()) : name, Lang.RDFXML);
+	}
+	
+	private static InputStream open(File rdfSource) throws IOException {
+		final InputStream in = new BufferedInputStream(Files.newInputStream(rdfSource.toPath()), BUFFER_SIZE);
+		try {
+			return isCompressed(in) ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+		} catch (IOException e) {
+			in.close();
+			throw e;
+		}
+	}
+	
+	private static boolean isCompressed(InputStream in) throws IOException {
+		in.mark(2);
+		final int magic = in.read() | (in.read() << 8);
+		in.reset();
+		return magic == GZIP_MAGIC;
 	}
 
 }
@@ -15,46 +15,78 @@
  *******************************************************************************/
 package de.unima.core.io.file;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Random;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.jena.rdf.model.Model;
 import org.deckfour.xes.model.XLog;
-import org.deckfour.xes.out.XesXmlSerializer;
+import org.deckfour.xes.model.XTrace;
 import org.hashids.Hashids;
 
 import com.google.common.base.Throwables;
 
+import de.unima.core.io.file.xes.EventOrder;
 import de.unima.core.io.file.xes.OntModelToXLogExporter;
+import de.unima.core.io.file.xes.XLogSink;
+import de.unima.core.io.file.xes.XesXmlStreamWriter;
 
+/**
+ * Exports the logs of a model as XES files.
+ * 
+ * <p>The logs are not built in memory but written trace by trace while they are 
+ * retrieved. An exporter created with a {@link ForkJoinPool} retrieves and builds
+ * chunks of traces in parallel and writes them in document order.
+ * 
+ * <p>Traces are written in document order; events in the given {@link EventOrder},
+ * {@link EventOrder#DOCUMENT} by default.
+ */
 public class XESExporter implements FileBasedExporter<Model> {
 
+	private static final int BUFFER_SIZE = 1 << 16;
+	
 	private final Hashids hashIds = new Hashids("XESExporter");
 	private final Random rand = new Random();
-	private final XesXmlSerializer serializer = new XesXmlSerializer();
-	private final OntModelToXLogExporter xesExporter = new OntModelToXLogExporter();
+	private final OntModelToXLogExporter xesExporter;
+	
+	public XESExporter() {
+		this(EventOrder.DOCUMENT);
+	}
+	
+	/**
+	 * @param pool on which traces and events of the exported logs are built
+	 */
+	public XESExporter(ForkJoinPool pool) {
+		this(EventOrder.DOCUMENT, pool);
+	}
+	
+	/**
+	 * @param eventOrder of the events of each exported trace
+	 */
+	public XESExporter(EventOrder eventOrder) {
+		this.xesExporter = new OntModelToXLogExporter(eventOrder);
+	}
+	
+	/**
+	 * @param eventOrder of the events of each exported trace
+	 * @param pool on which traces and events of the exported logs are built
+	 */
+	public XESExporter(EventOrder eventOrder, ForkJoinPool pool) {
+		this.xesExporter = new OntModelToXLogExporter(eventOrder, pool);
+	}
 	
 	@Override
 	public File exportToFile(Model data, File location) {
-		final Set<XLog> logs = xesExporter.export(data);
-		if(location.isDirectory()){
-			return exportLogsToDirectory(logs, location);
+		try(final LogFilesSink sink = new LogFilesSink(location)) {
+			xesExporter.export(data, sink);
 		}
-		return exportLogToFile(logs, location);
-	}
-
-	private File exportLogsToDirectory(Set<XLog> logs, File directory) {
-		for(XLog log: logs) {
-			writeLogToFile(log, createFileInDirectory(directory));
-		}
-		return directory;
+		return location;
 	}
-
+	
 	private Path createFileInDirectory(File directory) {
 		try {
 			return Files.createFile(directory.toPath().resolve(createXesFileName()));
@@ -67,29 +99,63 @@ public class XESExporter implements FileBasedExporter<Model> {
 		return "xes-exporterd-"+hashIds.encode(rand.nextLong())+".xes";
 	}
 	
-	private File exportLogToFile(Set<XLog> logs, File location) {
-		if(logs.isEmpty()) {
-			return location;
+	/**
+	 * Writes each log to a new file in the directory or the only log to the file.
+	 */
+	private class LogFilesSink implements XLogSink, AutoCloseable {
+		
+		private final File location;
+		private XesXmlStreamWriter writer;
+		
+		LogFilesSink(File location) {
+			this.location = location;
 		}
-		if(containsMoreThanOneLog(logs)){
-			throw new IllegalArgumentException(String.format("%s is a file. "
-					+ "Multiple XES logs cannot be serialized to one file. "
-					+ "Please provide a directory instead.", location.toString()));
+
+		@Override
+		public void begin(int numberOfLogs) {
+			if(!location.isDirectory() && numberOfLogs > 1){
+				throw new IllegalArgumentException(String.format("%s is a file. "
+						+ "Multiple XES logs cannot be serialized to one file. "
+						+ "Please provide a directory instead.", location.toString()));
+			}
 		}
-		writeLogToFile(logs.iterator().next(), location.toPath());
-		return location;
-	}
-	
-	private boolean containsMoreThanOneLog(Set<XLog> logs) {
-		return logs.size() > 1;
-	}
 
-	private void writeLogToFile(XLog log, final Path xesFile) {
-		try(final OutputStream out = Files.newOutputStream(xesFile)){
-			serializer.serialize(log, out);
-		} catch (IOException e) {
-			throw Throwables.propagate(e);
+		@Override
+		public void startLog(XLog log) {
+			final Path xesFile = location.isDirectory() ? createFileInDirectory(location) : location.toPath();
+			try {
+				writer = new XesXmlStreamWriter(new BufferedOutputStream(Files.newOutputStream(xesFile), BUFFER_SIZE));
+			} catch (IOException e) {
+				throw Throwables.propagate(e);
+			}
+			writer.startLog(log);
+		}
+
+		@Override
+		public void addTrace(XTrace trace) {
+			writer.addTrace(trace);
+		}
+
+		@Override
+		public void endLog() {
+			writer.endLog();
+			close();
+		}
+
+		@Override
+		public void close() {
+			if(writer == null) {
+				return;
+			}
+			try {
+				writer.close();
+			} catch (IOException e) {
+				throw Throwables.propagate(e);
+			} finally {
+				writer = null;
+			}
 		}
+		
 	}
 
 }
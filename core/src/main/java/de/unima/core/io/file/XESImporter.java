@@ -17,46 +17,35 @@ package de.unima.core.io.file;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.URL;
 import java.nio.file.Files;
 
-import org.apache.jena.ontology.OntModel;
 import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.system.StreamRDF;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.base.Throwables;
-import com.google.common.io.Resources;
 
-public class XESImporter implements FileBasedImporter<Model> {
+import de.unima.core.io.StreamingImporter;
+import de.unima.core.io.file.xes.OrderIndexer;
 
-	private final OntModel xesOntology;
-	private final XMLImporter dataImporter;
-    
-	public XESImporter() {
-		try(InputStream stream = openStream("xml/xes.xsd")){
-			xesOntology = new XSDImporter().importData(stream);
-		} catch (IOException e) {
-			throw Throwables.propagate(e);
-		}
-		dataImporter = new XMLImporter(xesOntology);
-	}
-	
-	private static InputStream openStream(final String resourceName) {
-		final URL fileUrl = Resources.getResource(resourceName);
-		try {
-			return Resources.asByteSource(fileUrl).openStream();
-		} catch (IOException e) {
-			throw Throwables.propagate(e);
-		}
-	}
+/**
+ * Imports XES files. The position of each trace and event in the file is stored
+ * by an {@link OrderIndexer}, so that the document order is kept on export.
+ */
+public class XESImporter implements FileBasedImporter<Model>, StreamingImporter<File> {
+
+	/**
+	 * Shared by all instances, so that the type lookups of the XES ontology are only done once.
+	 */
+	private static final Supplier<XMLImporter> DATA_IMPORTER = Suppliers.memoize(() -> new XMLImporter(BundledOntologies.xesFromXsd()));
 
 	@Override
-	public Model importData(File dataSource) {
+	public void importData(File dataSource, StreamRDF target) {
 		if(isEmpty(dataSource)){
-			return ModelFactory.createDefaultModel();
+			return;
 		}
-		return dataImporter.importData(dataSource);
+		DATA_IMPORTER.get().importData(dataSource, new OrderIndexer(target));
 	}
 
 	private boolean isEmpty(File dataSource) {
@@ -15,27 +15,44 @@
  *******************************************************************************/
 package de.unima.core.io.file;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.stream.XMLStreamException;
 
 import org.apache.jena.ontology.OntModel;
 import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.system.StreamRDF;
+
+import com.google.common.base.Throwables;
 
+import de.unima.core.io.StreamingImporter;
 import tr.com.srdc.ontmalizer.XML2OWLMapper;
+import tr.com.srdc.ontmalizer.XSD2OWLMapper;
 
-public class XMLImporter implements FileBasedImporter<Model> {
+public class XMLImporter implements FileBasedImporter<Model>, StreamingImporter<File> {
 	
-	private OntModel ontology;
+	private final XSD2OWLMapper mapping;
 	
 	public XMLImporter(OntModel ontology) {
-		this.ontology = ontology;
+		// One mapping per ontology, so that its type lookups are shared by all imports
+		this.mapping = new XSD2OWLMapper(ontology);
 	}
 
+	/**
+	 * Converts the given XML file without building a DOM. 
+	 */
 	@Override
-	public Model importData(File xml) {
-		XML2OWLMapper mapper = new XML2OWLMapper(xml, ontology);
-	    mapper.convertXML2OWL();
-	    return ModelFactory.createDefaultModel().add(mapper.getModel());
+	public void importData(File xml, StreamRDF target) {
+		XML2OWLMapper mapper = new XML2OWLMapper(mapping);
+		try(InputStream stream = new BufferedInputStream(new FileInputStream(xml))){
+			mapper.convertXML2OWL(stream, target);
+		} catch (IOException | XMLStreamException e) {
+			throw Throwables.propagate(e);
+		}
 	}
 
 }
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.io.file.xes;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableMap;
+
+import de.unima.core.io.file.BundledOntologies;
+
+/**
+ * Lookup table from the attribute properties of the XES ontology (e.g. {@code xes:string})
+ * to the XES type of their values (e.g. {@code string}).
+ * 
+ * <p>The table is derived once from the bundled xes.owl: each property which is restricted
+ * to a subclass of {@code xes:AttributeType} is an attribute property. Thus, the retrievers
+ * do not have to join the data with the schema to find the attributes of a node.
+ */
+final class AttributeTypes {
+	
+	private static final Supplier<Map<String, String>> TYPES_BY_PROPERTY = 
+			Suppliers.memoize(() -> findAttributeTypes(BundledOntologies.xes()));
+	
+	private AttributeTypes() {
+		// No instantiation allowed
+		throw new UnsupportedOperationException();
+	}
+	
+	/**
+	 * @return XES types by the URI of their attribute property; ordered by URI
+	 */
+	static Map<String, String> byProperty() {
+		return TYPES_BY_PROPERTY.get();
+	}
+	
+	/**
+	 * @param propertyUri of an attribute property
+	 * @return XES type of the values of the property; null if it is no attribute property
+	 */
+	static String of(String propertyUri) {
+		return TYPES_BY_PROPERTY.get().get(propertyUri);
+	}
+
+	private static Map<String, String> findAttributeTypes(Model schema) {
+		final String query = "PREFIX xes: <" + Retriever.NS_XES + ">\n"
+				+ "PREFIX rdfs: <" + Retriever.NS_RDFS + ">\n"
+				+ "PREFIX owl: <" + Retriever.NS_OWL + ">\n"
+				+ "SELECT DISTINCT ?attribute\n"
+				+ "WHERE {\n"
+				+ "	?attributeType rdfs:subClassOf xes:AttributeType .\n"
+				+ "	?attributeTypeAnon\n"
+				+ "		owl:allValuesFrom   ?attributeType ;\n"
+				+ "		owl:onProperty   ?attribute .\n"
+				+ "}\n";
+		final Map<String, String> types = new TreeMap<>();
+		try(QueryExecution queryExecution = QueryExecutionFactory.create(query, schema)) {
+			ResultSet results = queryExecution.execSelect();
+			while(results.hasNext()) {
+				final QuerySolution solution = results.nextSolution();
+				types.put(solution.getResource("?attribute").getURI(), solution.getResource("?attribute").getLocalName());
+			}
+		}
+		return ImmutableMap.copyOf(types);
+	}
+}
@@ -19,80 +19,101 @@ import java.time.ZonedDateTime;
 import java.util.Date;
 
 import org.apache.jena.query.ParameterizedSparqlString;
-import org.apache.jena.query.Query;
-import org.apache.jena.query.QueryExecution;
-import org.apache.jena.query.QueryExecutionFactory;
 import org.apache.jena.query.QuerySolution;
-import org.apache.jena.query.ResultSet;
+import org.apache.jena.query.QuerySolutionMap;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.RDFNode;
 import org.deckfour.xes.id.XID;
 import org.deckfour.xes.model.XAttribute;
-import org.deckfour.xes.model.XAttributeMap;
 
-import com.google.common.base.Throwables;
-
-class AttributesRetriever extends Retriever<XAttributeMap> {
+/**
+ * Retrieves the attributes of all attributable nodes (logs, traces, events and
+ * globals) at once; grouped by the node they belong to.
+ * 
+ * <p>{@link #of(RDFNode, Model)} and {@link #ofGlobals(Model)} restrict the retrieval 
+ * to the attributes of one node or of the globals of all logs.
+ */
+class AttributesRetriever extends GroupingRetriever<XAttribute> {
+	
+	private final String ownerPattern;
+	private final QuerySolutionMap initialBinding = new QuerySolutionMap();
 	
-	private final RDFNode node;
+	public AttributesRetriever(Model model) {
+		this("", model);
+	}
 	
-	public AttributesRetriever(RDFNode node, Model model) {
+	private AttributesRetriever(String ownerPattern, Model model) {
 		super(model);
-		this.node = node;
+		this.ownerPattern = ownerPattern;
+	}
+	
+	/**
+	 * @param node whose attributes are retrieved
+	 * @param model to retrieve the attributes from
+	 * @return retriever of the attributes of the node
+	 */
+	static AttributesRetriever of(RDFNode node, Model model) {
+		final AttributesRetriever retriever = new AttributesRetriever("", model);
+		retriever.initialBinding.add("node", node);
+		return retriever;
+	}
+	
+	/**
+	 * @param model to retrieve the attributes from
+	 * @return retriever of the attributes of the globals of all logs; grouped by global
+	 */
+	static AttributesRetriever ofGlobals(Model model) {
+		return new AttributesRetriever("	?owner xes:global ?node .\n", model);
+	}
+	
+	@Override
+	protected QuerySolution createInitialBinding() {
+		return initialBinding;
+	}
+	
+	@Override
+	protected String getQueryKey() {
+		return super.getQueryKey() + ownerPattern;
 	}
 	
 	@Override
 	protected ParameterizedSparqlString createAndConfigureQueryBuilder() {
 		ParameterizedSparqlString queryBuilder = new ParameterizedSparqlString();
 		queryBuilder.setNsPrefix("xes", NS_XES);
-		queryBuilder.setNsPrefix("rdfs", NS_RDFS);
-		queryBuilder.setNsPrefix("owl", NS_OWL);
 		
-		queryBuilder.append("SELECT DISTINCT ?key ?value ?attribute\n");
+		queryBuilder.append("SELECT DISTINCT ?node ?key ?value ?attribute\n");
 		queryBuilder.append("WHERE {\n");
+		queryBuilder.append("	VALUES ?attribute {");
+		for(String attributeProperty: AttributeTypes.byProperty().keySet()) {
+			queryBuilder.append(" <" + attributeProperty + ">");
+		}
+		queryBuilder.append(" }\n");
+		queryBuilder.append(ownerPattern);
 		queryBuilder.append("	?eventAttr\n");
 		queryBuilder.append("		xes:key     ?key ;\n");
 		queryBuilder.append("		xes:value   ?value .\n");
 		queryBuilder.append("	?node ?attribute ?eventAttr .\n");
-		queryBuilder.append("	?attributeType rdfs:subClassOf xes:AttributeType .\n");
-		queryBuilder.append("	?attributeTypeAnon\n");
-		queryBuilder.append("		owl:allValuesFrom   ?attributeType ;\n");
-		queryBuilder.append("		owl:onProperty   ?attribute .\n");
 		queryBuilder.append("}\n");
 		
 		return queryBuilder;
 	}
 	
 	@Override
-	public XAttributeMap retrieve() {
-		final ParameterizedSparqlString builder = createAndConfigureQueryBuilder();
-		setQueryParameters(builder);
-		return executeQuery(builder.asQuery());
+	protected RDFNode extractOwner(QuerySolution querySolution) {
+		return querySolution.get("?node");
 	}
-	
+
 	@Override
-	protected void setQueryParameters(ParameterizedSparqlString queryBuilder) {
-		queryBuilder.setParam("?node", node);
+	protected XAttribute createElement(QuerySolution querySolution) {
+		return createAttribute(querySolution);
 	}
 	
-	@Override
-	protected XAttributeMap executeQuery(Query query) {
-		XAttributeMap attributes = factory.createAttributeMap();
-		try(QueryExecution queryExecution = QueryExecutionFactory.create(query, model)) {
-			ResultSet results = queryExecution.execSelect();
-			while(results.hasNext()) {
-				final QuerySolution solution = results.nextSolution();
-				XAttribute attribute = createElement(solution);
-				attributes.put(attribute.getKey(), attribute);
-			}
-		} catch(Exception e) {
-			throw Throwables.propagate(e);
-		}
-		return attributes;
-	}
-
-	protected XAttribute createElement(QuerySolution querySolution) {
-		final String attributeType = querySolution.get("?attribute").asNode().getLocalName();
+	/**
+	 * @param querySolution binding {@code ?attribute}, {@code ?key} and {@code ?value}
+	 * @return attribute described by the solution
+	 */
+	static XAttribute createAttribute(QuerySolution querySolution) {
+		final String attributeType = AttributeTypes.of(querySolution.get("?attribute").asNode().getURI());
 		final String key = querySolution.get("?key").asLiteral().getString();
 		final String value = querySolution.get("?value").asLiteral().getString();
 		final XAttribute attribute = createAttribute(attributeType, key, value);
@@ -100,7 +121,7 @@ class AttributesRetriever extends Retriever<XAttributeMap> {
 	}
 
 	
-	private XAttribute createAttribute(String attributeType, String key, String value) {
+	private static XAttribute createAttribute(String attributeType, String key, String value) {
 		switch(attributeType) {
 			case "date": return factory.createAttributeTimestamp(key, parseDate(value), null);
 			case "int": return factory.createAttributeDiscrete(key, Integer.parseInt(value), null);
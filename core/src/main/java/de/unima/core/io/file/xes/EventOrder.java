@@ -0,0 +1,71 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.io.file.xes;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.deckfour.xes.model.XAttribute;
+import org.deckfour.xes.model.XAttributeTimestamp;
+import org.deckfour.xes.model.XEvent;
+
+/**
+ * Order of the events of an exported trace.
+ * 
+ * <p>Traces are always exported in the order of the imported document. Data imported 
+ * without an {@link OrderIndexer} has no document order; its traces and events are 
+ * exported in an arbitrary order.
+ */
+public enum EventOrder {
+	
+	/**
+	 * Events are exported in the order of the imported document.
+	 */
+	DOCUMENT,
+	
+	/**
+	 * Events are exported ordered by their {@code time:timestamp}; events with
+	 * the same timestamp in the order of the imported document. Events without
+	 * a timestamp are exported last.
+	 */
+	TIMESTAMP;
+	
+	private static final String TIMESTAMP_KEY = "time:timestamp";
+	private static final Comparator<XEvent> BY_TIMESTAMP = Comparator.comparing(EventOrder::getTimestamp, 
+			Comparator.nullsLast(Comparator.naturalOrder()));
+	
+	/**
+	 * @param events of a trace in document order
+	 * @return events in this order
+	 */
+	List<XEvent> sort(List<XEvent> events) {
+		if(this == DOCUMENT) {
+			return events;
+		}
+		final List<XEvent> sortedEvents = new ArrayList<>(events);
+		sortedEvents.sort(BY_TIMESTAMP);
+		return sortedEvents;
+	}
+	
+	private static Long getTimestamp(XEvent event) {
+		final XAttribute timestamp = event.getAttributes().get(TIMESTAMP_KEY);
+		if(timestamp instanceof XAttributeTimestamp) {
+			return ((XAttributeTimestamp) timestamp).getValue().getTime();
+		}
+		return null;
+	}
+}
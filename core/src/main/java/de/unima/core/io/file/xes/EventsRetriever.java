@@ -17,18 +17,37 @@ package de.unima.core.io.file.xes;
 
 import org.apache.jena.query.ParameterizedSparqlString;
 import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.QuerySolutionMap;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.RDFNode;
-import org.deckfour.xes.model.XAttributeMap;
+import org.deckfour.xes.model.XAttribute;
 import org.deckfour.xes.model.XEvent;
 
-class EventsRetriever extends SetRetriever<XEvent> {
+import com.google.common.collect.ListMultimap;
 
-	private final RDFNode traceNode;
+class EventsRetriever extends GroupingRetriever<XEvent> {
+
+	private final ListMultimap<RDFNode, XAttribute> attributes;
+	private final QuerySolutionMap initialBinding = new QuerySolutionMap();
 	
-	public EventsRetriever(RDFNode traceNode, Model model) {
+	public EventsRetriever(ListMultimap<RDFNode, XAttribute> attributes, Model model) {
 		super(model);
-		this.traceNode = traceNode;
+		this.attributes = attributes;
+	}
+	
+	/**
+	 * @param attributes of the events of the trace
+	 * @param trace whose events are retrieved
+	 * @param model to retrieve the events from
+	 */
+	public EventsRetriever(ListMultimap<RDFNode, XAttribute> attributes, RDFNode trace, Model model) {
+		this(attributes, model);
+		initialBinding.add("trace", trace);
+	}
+	
+	@Override
+	protected QuerySolution createInitialBinding() {
+		return initialBinding;
 	}
 	
 	@Override
@@ -36,24 +55,26 @@ class EventsRetriever extends SetRetriever<XEvent> {
 		final ParameterizedSparqlString queryBuilder = new ParameterizedSparqlString();
 		queryBuilder.setNsPrefix("xes", NS_XES);
 		queryBuilder.setNsPrefix("rdf", NS_RDF);
-		queryBuilder.append("SELECT DISTINCT ?event\n");
+		queryBuilder.append("SELECT DISTINCT ?trace ?event\n");
 		queryBuilder.append("WHERE {\n");
+		queryBuilder.append("	?trace xes:event ?event .\n");
 		queryBuilder.append("	?event rdf:type xes:EventType .\n");
+		queryBuilder.append("	OPTIONAL { ?event <" + OrderIndexer.ORDER_INDEX + "> ?index }\n");
 		queryBuilder.append("}\n");
+		queryBuilder.append("ORDER BY ?index\n");
 		return queryBuilder;
 	}
 	
 	@Override
-	protected void setQueryParameters(ParameterizedSparqlString queryBuilder) {
-		queryBuilder.setParam("?trace", traceNode);
+	protected RDFNode extractOwner(QuerySolution querySolution) {
+		return querySolution.get("?trace");
 	}
 
 	@Override
 	protected XEvent createElement(QuerySolution querySolution) {
 		final RDFNode eventNode = querySolution.get("?event");
 		final XEvent event = factory.createEvent();
-		final XAttributeMap attributes = getAttributes(eventNode);
-		event.getAttributes().putAll(attributes);
+		event.getAttributes().putAll(createAttributeMap(attributes.get(eventNode)));
 		return event;
 	}
 	
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.io.file.xes;
+
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.sparql.algebra.Op;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+
+/**
+ * Retrieves the elements of all owners with one query and groups them by owner.
+ * 
+ * <p>In contrast to a {@link SetRetriever}, which is executed once per owner node,
+ * a {@code GroupingRetriever} is executed once per model. The result serves as
+ * in-memory index from which the {@code XLog} tree is assembled.
+ *
+ * @param <T> type of the grouped elements
+ */
+abstract class GroupingRetriever<T> extends Retriever<ListMultimap<RDFNode, T>> {
+
+	public GroupingRetriever(Model model) {
+		super(model);
+	}
+	
+	protected abstract RDFNode extractOwner(QuerySolution querySolution);
+	
+	protected abstract T createElement(QuerySolution querySolution);
+	
+	@Override
+	protected ListMultimap<RDFNode, T> executeQuery(Op query) {
+		final ListMultimap<RDFNode, T> elements = ArrayListMultimap.create();
+		forEachSolution(query, solution -> elements.put(extractOwner(solution), createElement(solution)));
+		return elements;
+	}
+}
@@ -22,13 +22,15 @@ import org.apache.jena.rdf.model.RDFNode;
 import org.deckfour.xes.classification.XEventAttributeClassifier;
 import org.deckfour.xes.classification.XEventClassifier;
 
-class LogEventClassifiersRetriever extends SetRetriever<XEventClassifier> {
+class LogEventClassifiersRetriever extends GroupingRetriever<XEventClassifier> {
 
-	private final RDFNode logNode;
-	
-	public LogEventClassifiersRetriever(RDFNode logNode, Model model) {
+	public LogEventClassifiersRetriever(Model model) {
 		super(model);
-		this.logNode = logNode;
+	}
+	
+	@Override
+	protected RDFNode extractOwner(QuerySolution querySolution) {
+		return querySolution.get("?log");
 	}
 
 	@Override
@@ -38,16 +40,11 @@ class LogEventClassifiersRetriever extends SetRetriever<XEventClassifier> {
 		return new XEventAttributeClassifier(classifierName, classifierKeys);
 	}
 
-	@Override
-	protected void setQueryParameters(ParameterizedSparqlString queryBuilder) {
-		queryBuilder.setParam("?log", logNode);
-	}
-
 	@Override
 	protected ParameterizedSparqlString createAndConfigureQueryBuilder() {
 		final ParameterizedSparqlString queryBuilder = new ParameterizedSparqlString();
 		queryBuilder.setNsPrefix("xes", NS_XES);
-		queryBuilder.append("SELECT DISTINCT ?name ?keys\n");
+		queryBuilder.append("SELECT DISTINCT ?log ?name ?keys\n");
 		queryBuilder.append("WHERE {\n");
 		queryBuilder.append("	?log xes:classifier ?classifier .\n");
 		queryBuilder.append("	?classifier\n");
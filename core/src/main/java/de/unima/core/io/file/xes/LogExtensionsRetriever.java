@@ -27,13 +27,15 @@ import org.deckfour.xes.extension.XExtensionManager;
 
 import com.google.common.base.Throwables;
 
-class LogExtensionsRetriever extends SetRetriever<XExtension> {
+class LogExtensionsRetriever extends GroupingRetriever<XExtension> {
 
-	private final RDFNode logNode;
-	
-	public LogExtensionsRetriever(RDFNode logNode, Model model) {
+	public LogExtensionsRetriever(Model model) {
 		super(model);
-		this.logNode = logNode;
+	}
+	
+	@Override
+	protected RDFNode extractOwner(QuerySolution querySolution) {
+		return querySolution.get("?log");
 	}
 
 	@Override
@@ -42,21 +44,15 @@ class LogExtensionsRetriever extends SetRetriever<XExtension> {
 		try {
 			return XExtensionManager.instance().getByUri(new URI(uri));
 		} catch (URISyntaxException e) {
-			Throwables.propagate(e);
+			throw Throwables.propagate(e);
 		}
-		return null;
-	}
-
-	@Override
-	protected void setQueryParameters(ParameterizedSparqlString queryBuilder) {
-		queryBuilder.setParam("?log", logNode);
 	}
 
 	@Override
 	protected ParameterizedSparqlString createAndConfigureQueryBuilder() {
 		final ParameterizedSparqlString queryBuilder = new ParameterizedSparqlString();
 		queryBuilder.setNsPrefix("xes", NS_XES);
-		queryBuilder.append("SELECT DISTINCT ?uri\n");
+		queryBuilder.append("SELECT DISTINCT ?log ?uri\n");
 		queryBuilder.append("WHERE {\n");
 		queryBuilder.append("	?log xes:extension ?extension .\n");
 		queryBuilder.append("	?extension xes:uri ?uri .\n");
@@ -15,9 +15,15 @@
  *******************************************************************************/
 package de.unima.core.io.file.xes;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 
 import org.apache.jena.query.ParameterizedSparqlString;
 import org.apache.jena.query.QuerySolution;
@@ -26,57 +32,162 @@ import org.apache.jena.rdf.model.RDFNode;
 import org.deckfour.xes.classification.XEventClassifier;
 import org.deckfour.xes.extension.XExtension;
 import org.deckfour.xes.model.XAttribute;
-import org.deckfour.xes.model.XAttributeMap;
+import org.deckfour.xes.model.XEvent;
 import org.deckfour.xes.model.XLog;
 import org.deckfour.xes.model.XTrace;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+
+/**
+ * Retrieves all logs of a model.
+ * 
+ * <p>Attributes, traces, events, extensions, globals and classifiers are not
+ * queried per log but fetched once for the whole model by the corresponding
+ * {@link GroupingRetriever}. The logs are then assembled from these in-memory
+ * indexes. Thus, the number of executed queries is independent of the number
+ * of logs, traces and events.
+ * 
+ * <p>{@link #retrieve(XLogSink)} does not build the logs in memory. It retrieves the
+ * ordered trace nodes of each log and splits them into chunks of {@value #TRACES_PER_CHUNK}. 
+ * The traces of a chunk, their events and attributes are retrieved with one ordered query
+ * and each trace is passed to a sink as soon as it is complete. Thus, besides the trace 
+ * nodes of the log, only the solutions of one chunk are held in memory.
+ * 
+ * <p>Traces are retrieved in document order and their events in the given {@link EventOrder}.
+ * Logs are not indexed since each XES document contains exactly one log. Logs of several
+ * imported documents are ordered by their nodes; which is stable but not the import order.
+ * 
+ * <p>Given a pool, the traces of each log are retrieved and created in chunks
+ * concurrently on it; both by {@link #retrieve()} and {@link #retrieve(XLogSink)}.
+ * Then, the model must allow concurrent reads; e.g. a read-only snapshot in memory.
+ */
 class LogsRetriever extends SetRetriever<XLog> {
 
+	static final int TRACES_PER_CHUNK = 32;
+
+	private final ForkJoinPool pool;
+	private final EventOrder eventOrder;
+	private final Supplier<ListMultimap<RDFNode, XAttribute>> attributes = 
+			Suppliers.memoize(() -> new AttributesRetriever(model).retrieve());
+	private final Supplier<ListMultimap<RDFNode, XTrace>> traces = Suppliers.memoize(this::retrieveTraces);
+	private final Supplier<ListMultimap<RDFNode, XExtension>> extensions = 
+			Suppliers.memoize(() -> new LogExtensionsRetriever(model).retrieve());
+	private final Supplier<ListMultimap<RDFNode, Collection<XAttribute>>> traceScopeGlobals = 
+			Suppliers.memoize(() -> new ScopedLogGlobalsRetriever("trace", attributes.get(), model).retrieve());
+	private final Supplier<ListMultimap<RDFNode, Collection<XAttribute>>> eventScopeGlobals = 
+			Suppliers.memoize(() -> new ScopedLogGlobalsRetriever("event", attributes.get(), model).retrieve());
+	private final Supplier<ListMultimap<RDFNode, XEventClassifier>> classifiers = 
+			Suppliers.memoize(() -> new LogEventClassifiersRetriever(model).retrieve());
+	
 	public LogsRetriever(Model model) {
+		this(model, EventOrder.DOCUMENT, null);
+	}
+	
+	/**
+	 * @param model to retrieve the logs from
+	 * @param eventOrder of the events of each trace
+	 * @param pool on which chunks of traces are retrieved and created; null retrieves them sequentially
+	 */
+	public LogsRetriever(Model model, EventOrder eventOrder, ForkJoinPool pool) {
 		super(model);
+		this.eventOrder = eventOrder;
+		this.pool = pool;
+	}
+	
+	/**
+	 * Passes the logs trace by trace to the sink.
+	 * @param sink of the logs
+	 */
+	public void retrieve(XLogSink sink) {
+		final List<RDFNode> logNodes = retrieveLogNodes();
+		sink.begin(logNodes.size());
+		final ListMultimap<RDFNode, XAttribute> globalAttributes = AttributesRetriever.ofGlobals(model).retrieve();
+		final ListMultimap<RDFNode, Collection<XAttribute>> traceScopeGlobals = 
+				new ScopedLogGlobalsRetriever("trace", globalAttributes, model).retrieve();
+		final ListMultimap<RDFNode, Collection<XAttribute>> eventScopeGlobals = 
+				new ScopedLogGlobalsRetriever("event", globalAttributes, model).retrieve();
+		for(RDFNode logNode: logNodes) {
+			sink.startLog(createLogWithoutTraces(logNode, 
+					AttributesRetriever.of(logNode, model).retrieve(), traceScopeGlobals, eventScopeGlobals));
+			forEachTrace(logNode, sink::addTrace);
+			sink.endLog();
+		}
+	}
+	
+	private List<RDFNode> retrieveLogNodes() {
+		final List<RDFNode> logNodes = new ArrayList<>();
+		forEachSolution(compileQuery(), solution -> logNodes.add(solution.get("?log")));
+		return logNodes;
 	}
 	
 	@Override
 	protected XLog createElement(QuerySolution querySolution) {
 		final RDFNode logNode = querySolution.get("?log");
-		final XLog log = factory.createLog();
-		final XAttributeMap attributes = getAttributes(logNode);
-		log.getAttributes().putAll(attributes);
-		final Set<XTrace> tracesForLog = getTraces(logNode);
-		log.addAll(tracesForLog);
-		final Set<XExtension> extensions = getLogExtensions(logNode);
-		log.getExtensions().addAll(extensions);
-		final Collection<XAttribute> traceScopeGlobalAttributes = getScopedLogGlobals(logNode, "trace");
-		log.getGlobalTraceAttributes().addAll(traceScopeGlobalAttributes);
-		final Collection<XAttribute> eventScopeGlobalAttributes = getScopedLogGlobals(logNode, "event");
-		log.getGlobalEventAttributes().addAll(eventScopeGlobalAttributes);
-		final Set<XEventClassifier> classifiers = getLogEventClassifiers(logNode);
-		log.getClassifiers().addAll(classifiers);
+		final XLog log = createLogWithoutTraces(logNode, attributes.get(), traceScopeGlobals.get(), eventScopeGlobals.get());
+		if(pool == null) {
+			log.addAll(traces.get().get(logNode));
+		} else {
+			forEachTrace(logNode, log::add);
+		}
 		return log;
 	}
 	
-	private Set<XTrace> getTraces(RDFNode logNode) {
-		TracesRetriever retriever = new TracesRetriever(logNode, model);
-		return retriever.retrieve();
+	/**
+	 * Passes the traces of the log in document order to the consumer.
+	 * 
+	 * <p>The trace nodes are split into chunks which are retrieved one after another.
+	 * With a pool, each chunk is retrieved and its traces are created by a task on the pool. The traces are passed to the consumer
+	 * on the calling thread chunk by chunk in the order of the chunks. At most two chunks
+	 * per worker are in flight; so the traces are still streamed.
+	 */
+	private void forEachTrace(RDFNode logNode, Consumer<XTrace> consumer) {
+		final List<List<RDFNode>> chunksOfTraceNodes = Lists.partition(new TraceNodesRetriever(logNode, model).retrieve(), TRACES_PER_CHUNK);
+		if(pool == null) {
+			chunksOfTraceNodes.forEach(traceNodes -> new StreamingTracesRetriever(logNode, traceNodes, consumer, eventOrder, model).retrieve());
+			return;
+		}
+		final int maximumChunksInFlight = 2 * pool.getParallelism();
+		final Deque<ForkJoinTask<List<XTrace>>> chunks = new ArrayDeque<>();
+		try {
+			for(List<RDFNode> traceNodes: chunksOfTraceNodes) {
+				if(chunks.size() == maximumChunksInFlight) {
+					chunks.poll().join().forEach(consumer);
+				}
+				chunks.add(pool.submit(() -> {
+					final List<XTrace> traces = new ArrayList<>(traceNodes.size());
+					new StreamingTracesRetriever(logNode, traceNodes, traces::add, eventOrder, model).retrieve();
+					return traces;
+				}));
+			}
+			while(!chunks.isEmpty()) {
+				chunks.poll().join().forEach(consumer);
+			}
+		} finally {
+			chunks.forEach(chunk -> chunk.cancel(false));
+		}
 	}
 	
-	private Set<XExtension> getLogExtensions(RDFNode logNode) {
-		LogExtensionsRetriever retriever = new LogExtensionsRetriever(logNode, model);
-		return retriever.retrieve();
+	private XLog createLogWithoutTraces(RDFNode logNode, ListMultimap<RDFNode, XAttribute> attributes, 
+			ListMultimap<RDFNode, Collection<XAttribute>> traceScopeGlobals, ListMultimap<RDFNode, Collection<XAttribute>> eventScopeGlobals) {
+		final XLog log = factory.createLog();
+		log.getAttributes().putAll(createAttributeMap(attributes.get(logNode)));
+		log.getExtensions().addAll(extensions.get().get(logNode));
+		log.getGlobalTraceAttributes().addAll(getFirstScopedGlobals(traceScopeGlobals.get(logNode)));
+		log.getGlobalEventAttributes().addAll(getFirstScopedGlobals(eventScopeGlobals.get(logNode)));
+		log.getClassifiers().addAll(classifiers.get().get(logNode));
+		return log;
 	}
 	
-	private Collection<XAttribute> getScopedLogGlobals(RDFNode logNode, String scope) {
-		ScopedLogGlobalsRetriever retriever = new ScopedLogGlobalsRetriever(logNode, scope, model);
-		Set<Collection<XAttribute>> attributes = retriever.retrieve();
-		if(attributes.isEmpty()) {
-			return new HashSet<>();
-		}
-		return attributes.iterator().next();
+	private ListMultimap<RDFNode, XTrace> retrieveTraces() {
+		final ListMultimap<RDFNode, XEvent> events = new EventsRetriever(attributes.get(), model).retrieve();
+		return new TracesRetriever(attributes.get(), events, eventOrder, model).retrieve();
 	}
-
-	private Set<XEventClassifier> getLogEventClassifiers(RDFNode logNode) {
-		LogEventClassifiersRetriever retriever = new LogEventClassifiersRetriever(logNode, model);
-		return retriever.retrieve();
+	
+	private static Collection<XAttribute> getFirstScopedGlobals(List<Collection<XAttribute>> globals) {
+		return globals.isEmpty() ? Collections.emptyList() : globals.get(0);
 	}
 
 	@Override
@@ -84,11 +195,11 @@ class LogsRetriever extends SetRetriever<XLog> {
 		final ParameterizedSparqlString queryBuilder = new ParameterizedSparqlString();
 		queryBuilder.setNsPrefix("xes", NS_XES);
 		queryBuilder.setNsPrefix("rdf", NS_RDF);
-		queryBuilder.append("SELECT DISTINCT ?log ?attributeKey ?attributeValue\n");
+		queryBuilder.append("SELECT DISTINCT ?log\n");
 		queryBuilder.append("WHERE {\n");
 		queryBuilder.append("	?log rdf:type xes:log .\n");
 		queryBuilder.append("}\n");
+		queryBuilder.append("ORDER BY ?log\n");
 		return queryBuilder;		
 	}
 }
-
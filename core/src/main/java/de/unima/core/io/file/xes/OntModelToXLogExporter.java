@@ -15,38 +15,100 @@
  *******************************************************************************/
 package de.unima.core.io.file.xes;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
-import org.apache.jena.ontology.OntModel;
-import org.apache.jena.ontology.OntModelSpec;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.graph.GraphReadOnly;
 import org.deckfour.xes.model.XLog;
 
-import com.google.common.base.Throwables;
-import com.google.common.io.Resources;
+import com.google.common.base.Preconditions;
 
+/**
+ * Exports all logs of a model as {@link XLog}s.
+ * 
+ * <p>By default, traces and events are retrieved and built on the calling thread. 
+ * An exporter created with a {@link ForkJoinPool} splits the traces of each log into
+ * chunks which are retrieved and built concurrently on that pool. Then, the model
+ * is copied once on the calling thread into a read-only snapshot in memory, and
+ * only the snapshot is queried by the tasks on the pool. Both produce the same logs
+ * with traces and events in the same order.
+ * 
+ * <p>{@link #export(Model, XLogSink)} does not build the logs in memory
+ * but passes them trace by trace to a sink; e.g. a {@link XesXmlStreamWriter}.
+ * This also holds if the traces are built on a pool.
+ * 
+ * <p>Traces are exported in the order of the imported document; events in the 
+ * {@link EventOrder} of the exporter, {@link EventOrder#DOCUMENT} by default.
+ * The order of the logs of several imported documents is not kept.
+ * 
+ * <p>Only the data model is queried. The attribute types of the XES ontology are
+ * looked up in a table which is derived once from it.
+ * 
+ * <p>The model must not be changed while it is exported.
+ */
 public class OntModelToXLogExporter {
 
-	private static final String SCHEMAPATH = "ontologies/xes.owl";
-	private static final OntModel SCHEMA = loadSchemaFromFile();
+	private final EventOrder eventOrder;
+	private final ForkJoinPool pool;
 	
-	private static OntModel loadSchemaFromFile() {
-		OntModel schemaModel = ModelFactory.createOntologyModel(new OntModelSpec(OntModelSpec.OWL_MEM));
-		try (InputStream schemaInputStream = Resources.asByteSource(Resources.getResource(SCHEMAPATH)).openBufferedStream()){
-			schemaModel.read(schemaInputStream, null);
-		} catch (IOException e) {
-			throw Throwables.propagate(e);
-		}
-	    return schemaModel;
+	public OntModelToXLogExporter() {
+		this(EventOrder.DOCUMENT);
+	}
+	
+	/**
+	 * @param pool on which traces and events are built
+	 */
+	public OntModelToXLogExporter(ForkJoinPool pool) {
+		this(EventOrder.DOCUMENT, pool);
+	}
+	
+	/**
+	 * @param eventOrder of the events of each trace
+	 */
+	public OntModelToXLogExporter(EventOrder eventOrder) {
+		this.eventOrder = Preconditions.checkNotNull(eventOrder);
+		this.pool = null;
+	}
+	
+	/**
+	 * @param eventOrder of the events of each trace
+	 * @param pool on which traces and events are built
+	 */
+	public OntModelToXLogExporter(EventOrder eventOrder, ForkJoinPool pool) {
+		this.eventOrder = Preconditions.checkNotNull(eventOrder);
+		this.pool = Preconditions.checkNotNull(pool);
 	}
 	
 	public Set<XLog> export(Model dataModel) {
-		Model unifiedModel = ModelFactory.createUnion(SCHEMA, dataModel);
-		LogsRetriever retriever = new LogsRetriever(unifiedModel);
+		LogsRetriever retriever = new LogsRetriever(modelToRetrieveFrom(dataModel), eventOrder, pool);
 		return retriever.retrieve();
 	}
+	
+	/**
+	 * Passes the logs of the model trace by trace to the sink.
+	 * Besides the trace nodes of the current log, only the solutions and traces of one chunk 
+	 * of traces, or with a pool of a few chunks, are kept in memory at a time. With a pool,
+	 * the snapshot of the model is kept in memory as well.
+	 * @param dataModel which contains the logs
+	 * @param sink of the logs
+	 */
+	public void export(Model dataModel, XLogSink sink) {
+		new LogsRetriever(modelToRetrieveFrom(dataModel), eventOrder, pool).retrieve(sink);
+	}
+	
+	private Model modelToRetrieveFrom(Model dataModel) {
+		return pool == null ? dataModel : snapshotOf(dataModel);
+	}
+	
+	private static Model snapshotOf(Model dataModel) {
+		final Graph copy = GraphFactory.createGraphMem();
+		GraphUtil.addInto(copy, dataModel.getGraph());
+		return ModelFactory.createModelForGraph(new GraphReadOnly(copy));
+	}
 
 }
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.io.file.xes;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * Stores the position of each trace and event of an imported XES document.
+ * 
+ * <p>Whenever a trace or event is linked to its log or trace, the wrapper additionally
+ * passes an {@link #ORDER_INDEX} triple for it to the wrapped stream. The index is
+ * increased per trace and event of the stream. Thus, ordering by it restores the 
+ * document order of the traces of a log and of the events of a trace.
+ */
+public class OrderIndexer extends StreamRDFWrapper {
+
+	public static final String ORDER_INDEX = "http://www.uni-mannheim.de/spa/orderIndex";
+	
+	private static final String TRACE = Retriever.NS_XES + "trace";
+	private static final String EVENT = Retriever.NS_XES + "event";
+	private static final Node ORDER_INDEX_NODE = NodeFactory.createURI(ORDER_INDEX);
+	
+	private long nextIndex;
+	
+	public OrderIndexer(StreamRDF other) {
+		super(other);
+	}
+	
+	@Override
+	public void triple(Triple triple) {
+		super.triple(triple);
+		if(isOrdered(triple)) {
+			super.triple(Triple.create(triple.getObject(), ORDER_INDEX_NODE, createNextIndex()));
+		}
+	}
+	
+	@Override
+	public void quad(Quad quad) {
+		super.quad(quad);
+		if(isOrdered(quad.asTriple())) {
+			super.quad(Quad.create(quad.getGraph(), quad.getObject(), ORDER_INDEX_NODE, createNextIndex()));
+		}
+	}
+	
+	private static boolean isOrdered(Triple triple) {
+		final Node predicate = triple.getPredicate();
+		return predicate.isURI() && (predicate.getURI().equals(TRACE) || predicate.getURI().equals(EVENT));
+	}
+	
+	private Node createNextIndex() {
+		return NodeFactory.createLiteral(Long.toString(nextIndex++), XSDDatatype.XSDlong);
+	}
+}
@@ -15,12 +15,35 @@
  *******************************************************************************/
 package de.unima.core.io.file.xes;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
 import org.apache.jena.query.ParameterizedSparqlString;
-import org.apache.jena.query.Query;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.QuerySolutionMap;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.sparql.algebra.Algebra;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.core.ResultBinding;
+import org.apache.jena.sparql.core.Substitute;
+import org.apache.jena.sparql.engine.QueryIterator;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingUtils;
 import org.deckfour.xes.factory.XFactory;
 import org.deckfour.xes.factory.XFactoryNaiveImpl;
+import org.deckfour.xes.model.XAttribute;
+import org.deckfour.xes.model.XAttributeMap;
 
+/**
+ * Base of all retrievers of the {@code XLog} tree.
+ * 
+ * <p>The query of a retriever is parsed, compiled and optimized once per
+ * {@link #getQueryKey() query key} and shared by all retrievers with that key.
+ * Per execution, only the {@link #createInitialBinding() initial binding} is
+ * substituted into the compiled algebra.
+ */
 abstract class Retriever<T> {
 	
 	protected final static String NS_XES = "http://www.xes-standard.org/#";
@@ -30,6 +53,7 @@ abstract class Retriever<T> {
 	protected final static String NS_XSD = "http://www.w3.org/2001/XMLSchema#";
 	protected final static XFactory factory = new XFactoryNaiveImpl();
 	
+	private static final Map<String, Op> COMPILED_QUERIES = new ConcurrentHashMap<>();
 	
 	protected final Model model;
 	
@@ -39,10 +63,77 @@ abstract class Retriever<T> {
 	
 	protected abstract ParameterizedSparqlString createAndConfigureQueryBuilder();
 	
+	/**
+	 * Parameters are set once when the query is compiled. Thus, they must not differ 
+	 * between retrievers with the same {@link #getQueryKey() query key}.
+	 */
 	protected void setQueryParameters(ParameterizedSparqlString queryBuilder){}
 	
-	public abstract T retrieve();
+	/**
+	 * @return identifies the query of this retriever; by default the class of the retriever
+	 */
+	protected String getQueryKey() {
+		return getClass().getName();
+	}
+	
+	/**
+	 * @return variables which are bound before the query is executed; 
+	 * in contrast to {@link #setQueryParameters(ParameterizedSparqlString)} they may differ per execution 
+	 * and also blank nodes can be bound
+	 */
+	protected QuerySolution createInitialBinding() {
+		return new QuerySolutionMap();
+	}
+	
+	public T retrieve() {
+		return executeQuery(compileQuery());
+	}
+	
+	protected abstract T executeQuery(Op query);
 	
-	protected abstract T executeQuery(Query query);
+	protected Op compileQuery() {
+		return COMPILED_QUERIES.computeIfAbsent(getQueryKey(), key -> {
+			final ParameterizedSparqlString queryBuilder = createAndConfigureQueryBuilder();
+			setQueryParameters(queryBuilder);
+			return Algebra.optimize(Algebra.compile(queryBuilder.asQuery()));
+		});
+	}
+	
+	/**
+	 * Executes the compiled query with the initial binding of this retriever.
+	 * The initially bound variables are part of each solution.
+	 * @param query compiled by this retriever
+	 * @param action performed for each solution
+	 */
+	protected void forEachSolution(Op query, Consumer<QuerySolution> action) {
+		final Binding initialBinding = BindingUtils.asBinding(createInitialBinding());
+		final Op boundQuery = restrictQuery(initialBinding.isEmpty() ? query : Substitute.substitute(query, initialBinding));
+		final QueryIterator solutions = Algebra.exec(boundQuery, model);
+		try {
+			while(solutions.hasNext()) {
+				action.accept(new ResultBinding(model, BindingUtils.merge(initialBinding, solutions.nextBinding())));
+			}
+		} finally {
+			solutions.close();
+		}
+	}
+	
+	/**
+	 * Restricts the query per execution beyond the initial binding; e.g. by a sequence 
+	 * of bindings which are substituted one after another.
+	 * @param query compiled by this retriever with the initial binding substituted
+	 * @return query which is executed; by default the given query
+	 */
+	protected Op restrictQuery(Op query) {
+		return query;
+	}
+	
+	protected static XAttributeMap createAttributeMap(Collection<XAttribute> attributes) {
+		final XAttributeMap attributeMap = factory.createAttributeMap();
+		for(XAttribute attribute: attributes) {
+			attributeMap.put(attribute.getKey(), attribute);
+		}
+		return attributeMap;
+	}
 	
 }
@@ -17,44 +17,54 @@ package de.unima.core.io.file.xes;
 
 import java.util.Collection;
 
+import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.query.ParameterizedSparqlString;
 import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.QuerySolutionMap;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.ResourceFactory;
 import org.deckfour.xes.model.XAttribute;
 
-class ScopedLogGlobalsRetriever extends SetRetriever<Collection<XAttribute>> {
+import com.google.common.collect.ListMultimap;
+
+class ScopedLogGlobalsRetriever extends GroupingRetriever<Collection<XAttribute>> {
 
-	private final RDFNode logNode;
 	private final String scope;
+	private final ListMultimap<RDFNode, XAttribute> attributes;
 	
-	public ScopedLogGlobalsRetriever(RDFNode logNode, String scope, Model model) {
+	public ScopedLogGlobalsRetriever(String scope, ListMultimap<RDFNode, XAttribute> attributes, Model model) {
 		super(model);
-		this.logNode = logNode;
 		this.scope = scope;
+		this.attributes = attributes;
+	}
+	
+	@Override
+	protected RDFNode extractOwner(QuerySolution querySolution) {
+		return querySolution.get("?log");
 	}
 
 	@Override
 	protected Collection<XAttribute> createElement(QuerySolution querySolution) {
 		final RDFNode globalNode = querySolution.get("?global");
-		return getAttributes(globalNode).values();
+		return createAttributeMap(attributes.get(globalNode)).values();
 	}
 
 	@Override
-	protected void setQueryParameters(ParameterizedSparqlString queryBuilder) {
-		queryBuilder.setLiteral("?scope", scope);
-		queryBuilder.setParam("?log", logNode);
+	protected QuerySolution createInitialBinding() {
+		final QuerySolutionMap initialBinding = new QuerySolutionMap();
+		initialBinding.add("scope", ResourceFactory.createTypedLiteral(scope, XSDDatatype.XSDNCName));
+		return initialBinding;
 	}
 
 	@Override
 	protected ParameterizedSparqlString createAndConfigureQueryBuilder() {
 		final ParameterizedSparqlString queryBuilder = new ParameterizedSparqlString();
-		queryBuilder.setNsPrefix("xsd", NS_XSD);
 		queryBuilder.setNsPrefix("xes", NS_XES);
-		queryBuilder.append("SELECT DISTINCT ?global\n");
+		queryBuilder.append("SELECT DISTINCT ?log ?global\n");
 		queryBuilder.append("WHERE {\n");
 		queryBuilder.append("	?log xes:global ?global .\n");
-		queryBuilder.append("	?global xes:scope ?scope^^xsd:NCName .\n");
+		queryBuilder.append("	?global xes:scope ?scope .\n");
 		queryBuilder.append("}\n");
 		return queryBuilder;
 	}
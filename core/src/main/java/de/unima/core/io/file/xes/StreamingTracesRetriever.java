@@ -0,0 +1,178 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.io.file.xes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.QuerySolutionMap;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.Table;
+import org.apache.jena.sparql.algebra.TableFactory;
+import org.apache.jena.sparql.algebra.op.OpSequence;
+import org.apache.jena.sparql.algebra.op.OpTable;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.deckfour.xes.model.XAttribute;
+import org.deckfour.xes.model.XEvent;
+import org.deckfour.xes.model.XTrace;
+
+/**
+ * Retrieves some traces of one log one after another and passes each trace
+ * to a consumer as soon as it is created.
+ * 
+ * <p>In contrast to the {@link TracesRetriever}, the given traces, their events and
+ * the attributes of both are retrieved with one query ordered by trace and event. 
+ * The query is executed with the trace bound to each of the given trace nodes. 
+ * Since the solutions are sorted in memory, the retrieval is restricted to a bounded 
+ * chunk of the traces of the log. Each trace is passed to the consumer as soon as 
+ * the solutions of the next trace begin.
+ */
+class StreamingTracesRetriever extends Retriever<Integer> {
+
+	private final Consumer<XTrace> consumer;
+	private final EventOrder eventOrder;
+	private final QuerySolutionMap initialBinding = new QuerySolutionMap();
+	private final List<RDFNode> traceNodes;
+	
+	private RDFNode traceNode;
+	private RDFNode eventNode;
+	private XTrace trace;
+	private XEvent event;
+	private List<XEvent> events;
+	private int numberOfTraces;
+	
+	/**
+	 * @param logNode whose traces are retrieved
+	 * @param traceNodes of the log to which the retrieval is restricted
+	 * @param consumer of the traces
+	 * @param eventOrder of the events of each trace
+	 * @param model to retrieve the traces from
+	 */
+	public StreamingTracesRetriever(RDFNode logNode, List<RDFNode> traceNodes, Consumer<XTrace> consumer, 
+			EventOrder eventOrder, Model model) {
+		super(model);
+		this.traceNodes = traceNodes;
+		this.consumer = consumer;
+		this.eventOrder = eventOrder;
+		initialBinding.add("log", logNode);
+	}
+	
+	@Override
+	protected QuerySolution createInitialBinding() {
+		return initialBinding;
+	}
+	
+	@Override
+	protected Op restrictQuery(Op query) {
+		final Var trace = Var.alloc("trace");
+		final Table traces = TableFactory.create(Collections.singletonList(trace));
+		for(RDFNode traceNode: traceNodes) {
+			traces.addBinding(BindingFactory.binding(trace, traceNode.asNode()));
+		}
+		return OpSequence.create(OpTable.create(traces), query);
+	}
+	
+	/**
+	 * @return number of traces passed to the consumer
+	 */
+	@Override
+	protected Integer executeQuery(Op query) {
+		numberOfTraces = 0;
+		forEachSolution(query, this::addSolution);
+		passTrace();
+		return numberOfTraces;
+	}
+	
+	private void addSolution(QuerySolution solution) {
+		if(!solution.get("?trace").equals(traceNode)) {
+			passTrace();
+			traceNode = solution.get("?trace");
+			trace = factory.createTrace();
+			events = new ArrayList<>();
+			eventNode = null;
+		}
+		if(solution.contains("?event") && !solution.get("?event").equals(eventNode)) {
+			eventNode = solution.get("?event");
+			event = factory.createEvent();
+			events.add(event);
+		}
+		if(solution.contains("?attribute")) {
+			final XAttribute attribute = AttributesRetriever.createAttribute(solution);
+			(solution.contains("?event") ? event : trace).getAttributes().put(attribute.getKey(), attribute);
+		}
+	}
+	
+	private void passTrace() {
+		if(trace == null) {
+			return;
+		}
+		trace.addAll(eventOrder.sort(events));
+		consumer.accept(trace);
+		numberOfTraces++;
+		trace = null;
+		traceNode = null;
+	}
+
+	@Override
+	protected ParameterizedSparqlString createAndConfigureQueryBuilder() {
+		final ParameterizedSparqlString queryBuilder = new ParameterizedSparqlString();
+		queryBuilder.setNsPrefix("xes", NS_XES);
+		queryBuilder.setNsPrefix("rdf", NS_RDF);
+		queryBuilder.append("SELECT DISTINCT ?traceIndex ?trace ?eventIndex ?event ?key ?value ?attribute\n");
+		queryBuilder.append("WHERE {\n");
+		queryBuilder.append("	{\n");
+		appendTracePattern(queryBuilder);
+		appendAttributePattern("?trace", queryBuilder);
+		queryBuilder.append("	} UNION {\n");
+		appendTracePattern(queryBuilder);
+		queryBuilder.append("		?trace xes:event ?event .\n");
+		queryBuilder.append("		?event rdf:type xes:EventType .\n");
+		queryBuilder.append("		OPTIONAL { ?event <" + OrderIndexer.ORDER_INDEX + "> ?eventIndex }\n");
+		appendAttributePattern("?event", queryBuilder);
+		queryBuilder.append("	}\n");
+		queryBuilder.append("}\n");
+		queryBuilder.append("ORDER BY ?traceIndex ?trace ?eventIndex ?event\n");
+		return queryBuilder;
+	}
+	
+	private static void appendTracePattern(ParameterizedSparqlString queryBuilder) {
+		queryBuilder.append("		?log xes:trace ?trace .\n");
+		queryBuilder.append("		?trace rdf:type xes:TraceType .\n");
+		queryBuilder.append("		OPTIONAL { ?trace <" + OrderIndexer.ORDER_INDEX + "> ?traceIndex }\n");
+	}
+	
+	private static void appendAttributePattern(String node, ParameterizedSparqlString queryBuilder) {
+		queryBuilder.append("		OPTIONAL {\n");
+		queryBuilder.append("			" + node + " ?attribute ?attributeNode .\n");
+		queryBuilder.append("			?attributeNode\n");
+		queryBuilder.append("				xes:key     ?key ;\n");
+		queryBuilder.append("				xes:value   ?value .\n");
+		queryBuilder.append("			VALUES ?attribute {");
+		for(String attributeProperty: AttributeTypes.byProperty().keySet()) {
+			queryBuilder.append(" <" + attributeProperty + ">");
+		}
+		queryBuilder.append(" }\n");
+		queryBuilder.append("		}\n");
+	}
+
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.io.file.xes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.jena.query.ParameterizedSparqlString;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.QuerySolutionMap;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.sparql.algebra.Op;
+
+/**
+ * Retrieves the trace nodes of one log in the order of the imported document.
+ */
+class TraceNodesRetriever extends Retriever<List<RDFNode>> {
+
+	private final QuerySolutionMap initialBinding = new QuerySolutionMap();
+	
+	/**
+	 * @param logNode whose trace nodes are retrieved
+	 * @param model to retrieve the trace nodes from
+	 */
+	public TraceNodesRetriever(RDFNode logNode, Model model) {
+		super(model);
+		initialBinding.add("log", logNode);
+	}
+	
+	@Override
+	protected QuerySolution createInitialBinding() {
+		return initialBinding;
+	}
+	
+	@Override
+	protected List<RDFNode> executeQuery(Op query) {
+		final List<RDFNode> traceNodes = new ArrayList<>();
+		forEachSolution(query, solution -> traceNodes.add(solution.get("?trace")));
+		return traceNodes;
+	}
+
+	@Override
+	protected ParameterizedSparqlString createAndConfigureQueryBuilder() {
+		final ParameterizedSparqlString queryBuilder = new ParameterizedSparqlString();
+		queryBuilder.setNsPrefix("xes", NS_XES);
+		queryBuilder.setNsPrefix("rdf", NS_RDF);
+		queryBuilder.append("SELECT DISTINCT ?traceIndex ?trace\n");
+		queryBuilder.append("WHERE {\n");
+		queryBuilder.append("	?log xes:trace ?trace .\n");
+		queryBuilder.append("	?trace rdf:type xes:TraceType .\n");
+		queryBuilder.append("	OPTIONAL { ?trace <" + OrderIndexer.ORDER_INDEX + "> ?traceIndex }\n");
+		queryBuilder.append("}\n");
+		queryBuilder.append("ORDER BY ?traceIndex ?trace\n");
+		return queryBuilder;
+	}
+
+}
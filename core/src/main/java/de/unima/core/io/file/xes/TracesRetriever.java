@@ -15,55 +15,56 @@
  *******************************************************************************/
 package de.unima.core.io.file.xes;
 
-import java.util.Set;
-
 import org.apache.jena.query.ParameterizedSparqlString;
 import org.apache.jena.query.QuerySolution;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.RDFNode;
-import org.deckfour.xes.model.XAttributeMap;
+import org.deckfour.xes.model.XAttribute;
 import org.deckfour.xes.model.XEvent;
 import org.deckfour.xes.model.XTrace;
 
-class TracesRetriever extends SetRetriever<XTrace> {
+import com.google.common.collect.ListMultimap;
+
+class TracesRetriever extends GroupingRetriever<XTrace> {
 	
-	private final RDFNode logNode;
+	private final ListMultimap<RDFNode, XAttribute> attributes;
+	private final ListMultimap<RDFNode, XEvent> events;
+	private final EventOrder eventOrder;
 	
-	public TracesRetriever(RDFNode logNode, Model model) {
+	public TracesRetriever(ListMultimap<RDFNode, XAttribute> attributes, ListMultimap<RDFNode, XEvent> events, 
+			EventOrder eventOrder, Model model) {
 		super(model);
-		this.logNode = logNode;
+		this.attributes = attributes;
+		this.events = events;
+		this.eventOrder = eventOrder;
+	}
+	
+	@Override
+	protected RDFNode extractOwner(QuerySolution querySolution) {
+		return querySolution.get("?log");
 	}
 	
 	@Override
 	protected XTrace createElement(QuerySolution querySolution) {
 		final RDFNode traceNode = querySolution.get("?trace");
 		final XTrace trace = factory.createTrace();
-		final XAttributeMap attributes = getAttributes(traceNode);
-		trace.getAttributes().putAll(attributes);
-		final Set<XEvent> eventsForTrace = getEvents(traceNode);
-		trace.addAll(eventsForTrace);
+		trace.getAttributes().putAll(createAttributeMap(attributes.get(traceNode)));
+		trace.addAll(eventOrder.sort(events.get(traceNode)));
 		return trace;
 	}
 
-	@Override
-	protected void setQueryParameters(ParameterizedSparqlString queryBuilder) {
-		queryBuilder.setParam("?log", logNode);
-	}
-	
-	private Set<XEvent> getEvents(RDFNode traceNode) {
-		EventsRetriever retriever = new EventsRetriever(traceNode, model);
-		return retriever.retrieve();
-	}
-
 	@Override
 	protected ParameterizedSparqlString createAndConfigureQueryBuilder() {
 		final ParameterizedSparqlString queryBuilder = new ParameterizedSparqlString();
 		queryBuilder.setNsPrefix("xes", NS_XES);
 		queryBuilder.setNsPrefix("rdf", NS_RDF);
-		queryBuilder.append("SELECT DISTINCT ?trace\n");
+		queryBuilder.append("SELECT DISTINCT ?log ?trace\n");
 		queryBuilder.append("WHERE {\n");
+		queryBuilder.append("	?log xes:trace ?trace .\n");
 		queryBuilder.append("	?trace rdf:type xes:TraceType .\n");
+		queryBuilder.append("	OPTIONAL { ?trace <" + OrderIndexer.ORDER_INDEX + "> ?index }\n");
 		queryBuilder.append("}\n");
+		queryBuilder.append("ORDER BY ?index\n");
 		return queryBuilder;
 	}
 
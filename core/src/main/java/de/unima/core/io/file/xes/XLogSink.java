@@ -0,0 +1,49 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.io.file.xes;
+
+import org.deckfour.xes.model.XLog;
+import org.deckfour.xes.model.XTrace;
+
+/**
+ * Receives the logs of a model trace by trace.
+ * 
+ * <p>The logs are passed without traces to {@link #startLog(XLog)}. Their traces
+ * follow one after another via {@link #addTrace(XTrace)} until {@link #endLog()}
+ * is called. A trace is not referenced anymore by the exporter once it is passed and
+ * the chunk of traces it was retrieved with is complete.
+ */
+public interface XLogSink {
+	
+	/**
+	 * Called once before the first log is started.
+	 * @param numberOfLogs which are passed to the sink
+	 */
+	default void begin(int numberOfLogs) {}
+	
+	/**
+	 * @param log with its attributes, extensions, globals and classifiers; but without traces
+	 */
+	void startLog(XLog log);
+	
+	/**
+	 * @param trace of the current log
+	 */
+	void addTrace(XTrace trace);
+	
+	void endLog();
+	
+}
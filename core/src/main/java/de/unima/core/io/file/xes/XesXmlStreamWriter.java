@@ -0,0 +1,207 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.io.file.xes;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.deckfour.xes.classification.XEventClassifier;
+import org.deckfour.xes.extension.XExtension;
+import org.deckfour.xes.model.XAttribute;
+import org.deckfour.xes.model.XAttributeBoolean;
+import org.deckfour.xes.model.XAttributeCollection;
+import org.deckfour.xes.model.XAttributeContainer;
+import org.deckfour.xes.model.XAttributeContinuous;
+import org.deckfour.xes.model.XAttributeDiscrete;
+import org.deckfour.xes.model.XAttributeID;
+import org.deckfour.xes.model.XAttributeList;
+import org.deckfour.xes.model.XAttributeTimestamp;
+import org.deckfour.xes.model.XEvent;
+import org.deckfour.xes.model.XLog;
+import org.deckfour.xes.model.XTrace;
+
+import com.google.common.base.Throwables;
+
+/**
+ * Writes one log as XES XML to a stream; trace by trace.
+ * 
+ * <p>A writer writes exactly one XES document. Thus, {@link #startLog(XLog)} may
+ * only be called once; each further log needs a writer (and stream) of its own.
+ * 
+ * <p>In contrast to the {@code XesXmlSerializer} of OpenXES, the log does not have
+ * to be complete before it is written. Each trace passed to {@link #addTrace(XTrace)}
+ * is written immediately and is not referenced afterwards. The stream is not buffered
+ * by the writer.
+ */
+public class XesXmlStreamWriter implements XLogSink, Closeable {
+
+	private static final String NS_XES = "http://www.xes-standard.org/";
+	private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX").withZone(ZoneOffset.UTC);
+	private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+	
+	private final OutputStream out;
+	private final XMLStreamWriter writer;
+	private boolean started;
+	
+	public XesXmlStreamWriter(OutputStream out) {
+		this.out = out;
+		try {
+			this.writer = OUTPUT_FACTORY.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+		} catch (XMLStreamException e) {
+			throw Throwables.propagate(e);
+		}
+	}
+
+	@Override
+	public void startLog(XLog log) {
+		checkState(!started, "The log has already been started; a writer writes exactly one log.");
+		started = true;
+		try {
+			writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+			writer.writeStartElement("log");
+			writer.writeAttribute("xes.version", "1.0");
+			writer.writeAttribute("xes.features", "nested-attributes");
+			writer.writeDefaultNamespace(NS_XES);
+			for(XExtension extension: log.getExtensions()) {
+				writer.writeEmptyElement("extension");
+				writer.writeAttribute("name", extension.getName());
+				writer.writeAttribute("prefix", extension.getPrefix());
+				writer.writeAttribute("uri", extension.getUri().toString());
+			}
+			writeGlobals("trace", log.getGlobalTraceAttributes());
+			writeGlobals("event", log.getGlobalEventAttributes());
+			for(XEventClassifier classifier: log.getClassifiers()) {
+				writer.writeEmptyElement("classifier");
+				writer.writeAttribute("name", classifier.name());
+				writer.writeAttribute("keys", formatKeys(classifier.getDefiningAttributeKeys()));
+			}
+			writeAttributes(log.getAttributes().values());
+		} catch (XMLStreamException e) {
+			throw Throwables.propagate(e);
+		}
+	}
+
+	@Override
+	public void addTrace(XTrace trace) {
+		try {
+			writer.writeStartElement("trace");
+			writeAttributes(trace.getAttributes().values());
+			for(XEvent event: trace) {
+				writer.writeStartElement("event");
+				writeAttributes(event.getAttributes().values());
+				writer.writeEndElement();
+			}
+			writer.writeEndElement();
+		} catch (XMLStreamException e) {
+			throw Throwables.propagate(e);
+		}
+	}
+
+	@Override
+	public void endLog() {
+		try {
+			writer.writeEndElement();
+			writer.writeEndDocument();
+			writer.flush();
+		} catch (XMLStreamException e) {
+			throw Throwables.propagate(e);
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		try {
+			writer.close();
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		} finally {
+			out.close();
+		}
+	}
+	
+	private void writeGlobals(String scope, List<XAttribute> globals) throws XMLStreamException {
+		if(globals.isEmpty()) {
+			return;
+		}
+		writer.writeStartElement("global");
+		writer.writeAttribute("scope", scope);
+		writeAttributes(globals);
+		writer.writeEndElement();
+	}
+	
+	private void writeAttributes(Collection<XAttribute> attributes) throws XMLStreamException {
+		for(XAttribute attribute: attributes) {
+			writeAttribute(attribute);
+		}
+	}
+	
+	private void writeAttribute(XAttribute attribute) throws XMLStreamException {
+		writer.writeStartElement(getTypeName(attribute));
+		writer.writeAttribute("key", attribute.getKey());
+		if(attribute instanceof XAttributeList) {
+			writer.writeStartElement("values");
+			writeAttributes(((XAttributeCollection) attribute).getCollection());
+			writer.writeEndElement();
+		} else if(attribute instanceof XAttributeContainer) {
+			writeAttributes(((XAttributeCollection) attribute).getCollection());
+		} else {
+			writer.writeAttribute("value", formatValue(attribute));
+		}
+		if(attribute.hasAttributes()) {
+			writeAttributes(attribute.getAttributes().values());
+		}
+		writer.writeEndElement();
+	}
+	
+	private static String getTypeName(XAttribute attribute) {
+		if(attribute instanceof XAttributeTimestamp) return "date";
+		if(attribute instanceof XAttributeDiscrete) return "int";
+		if(attribute instanceof XAttributeContinuous) return "float";
+		if(attribute instanceof XAttributeBoolean) return "boolean";
+		if(attribute instanceof XAttributeID) return "id";
+		if(attribute instanceof XAttributeList) return "list";
+		if(attribute instanceof XAttributeContainer) return "container";
+		return "string";
+	}
+	
+	private static String formatValue(XAttribute attribute) {
+		if(attribute instanceof XAttributeTimestamp) {
+			return DATE_FORMAT.format(((XAttributeTimestamp) attribute).getValue().toInstant());
+		}
+		return attribute.toString();
+	}
+	
+	private static String formatKeys(String[] keys) {
+		return Stream.of(keys)
+				.map(key -> key.contains(" ") ? "'" + key + "'" : key)
+				.collect(Collectors.joining(" "));
+	}
+	
+}
@@ -21,17 +21,26 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.apache.commons.lang3.reflect.ConstructorUtils;
+import org.apache.jena.atlas.iterator.Iter;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.NodeIterator;
 import org.apache.jena.rdf.model.ResIterator;
 import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.vocabulary.RDF;
 import org.apache.jena.vocabulary.RDFS;
 
 import com.google.common.collect.Lists;
@@ -50,6 +59,8 @@ public abstract class AbstractEntityRepository<T extends Entity<R>, R> implement
 	
 	protected final Store store;
 	
+	protected final EntityCache cache;
+	
 	protected final Transformation<T>.SubjectMapping transformation;
 	
 	protected final Function<Model, Optional<Resource>> extractId = model -> {
@@ -63,7 +74,12 @@ public abstract class AbstractEntityRepository<T extends Entity<R>, R> implement
 	};
 	
 	public AbstractEntityRepository(Store store) {
+		this(store, EntityCache.disabled());
+	}
+	
+	public AbstractEntityRepository(Store store, EntityCache cache) {
 		this.store = store;
+		this.cache = checkNotNull(cache, "Cache must not be null. Use EntityCache.disabled() instead.");
 		this.transformation = Transformation.map(getEntityType())
 				.to(getRdfClass())
 				.withId("id")
@@ -97,7 +113,7 @@ public abstract class AbstractEntityRepository<T extends Entity<R>, R> implement
 	
 	private static <R> R instantiateWithArguments(Class<R> type, Object... arguments){
 		try {
-			return ConstructorUtils.invokeConstructor(type, arguments);
+			return Transformation.TransformationSupport.instantiate(type, arguments);
 		} catch (Exception e){
 				throw new IllegalStateException(String.format("Could not instaniate type '%s' with arguments %s.", 
 						type.getName(), 
@@ -108,21 +124,30 @@ public abstract class AbstractEntityRepository<T extends Entity<R>, R> implement
 	@Override
 	public List<R> saveAll(List<T> entities) {
 		entities.forEach(this::checkEntityToBeNotNullAndHasIdSet);
-		return store.writeWithConnection(connection -> connection.as(Dataset.class).map(dataset -> {
-			return entities.stream().map(entity -> saveEntityInDataSetAsNamedModel(entity, dataset)).collect(Collectors.toList());
-		})).get().get();
+		try {
+			return store.writeWithConnection(connection -> connection.as(Dataset.class).map(dataset -> {
+				return entities.stream().map(entity -> saveEntityInDataSetAsNamedModel(entity, dataset)).collect(Collectors.toList());
+			})).get().get();
+		} finally {
+			entities.forEach(this::evict);
+		}
 	}
 
 	@Override
 	public Optional<R> save(T entity) {
 		checkEntityToBeNotNullAndHasIdSet(entity);
-		return store.writeWithConnection(connection -> connection.as(Dataset.class).map(dataset -> {
-			return saveEntityInDataSetAsNamedModel(entity, dataset);
-		})).get();
+		try {
+			return store.writeWithConnection(connection -> connection.as(Dataset.class).map(dataset -> {
+				return saveEntityInDataSetAsNamedModel(entity, dataset);
+			})).get();
+		} finally {
+			evict(entity);
+		}
 	}
 	
-	private R saveEntityInDataSetAsNamedModel(T entity, Dataset dataset){
+	final R saveEntityInDataSetAsNamedModel(T entity, Dataset dataset){
 		final String graphId = generateGraphId(entity);
+		cache.invalidate(graphId);
         Model model = transformation.get().apply(entity);
         if(dataset.containsNamedModel(graphId)) {
             dataset.replaceNamedModel(graphId, model);
@@ -135,46 +160,136 @@ public abstract class AbstractEntityRepository<T extends Entity<R>, R> implement
 	@Override
 	public List<T> findAll() {
 		return store.readWithConnection(connection -> connection.as(Dataset.class).map(dataset -> {
-			final ArrayList<String> graphIds = Lists.newArrayList(dataset.listNames());
-			return graphIds.stream()
-					.filter(this::isGraphOfEntityInstance)
+			return findGraphIdsOfEntities(dataset).stream()
+					.map(graph -> createEntity(graph, dataset))
+					.collect(Collectors.toList());
+		})).get().get();
+	}
+	
+	@Override
+	public List<T> findAll(long offset, int limit) {
+		checkArgument(offset >= 0, "Offset must not be negative.");
+		checkArgument(limit >= 0, "Limit must not be negative.");
+		return store.readWithConnection(connection -> connection.as(Dataset.class).map(dataset -> {
+			return findGraphIdsOfEntities(dataset).stream()
+					.skip(offset)
+					.limit(limit)
 					.map(graph -> createEntity(graph, dataset))
 					.collect(Collectors.toList());
 		})).get().get();
 	}
 	
-	private boolean isGraphOfEntityInstance(String graphId){
-		return graphId.startsWith(getRdfClass()) && graphId.endsWith("graph");
+	@Override
+	public <S> S streamAll(Function<? super Stream<T>, S> query) {
+		checkNotNull(query, "Query must not be null.");
+		return store.readWithConnection(connection -> connection.as(Dataset.class).map(dataset -> {
+			return Optional.ofNullable(query.apply(findGraphIdsOfEntities(dataset).stream()
+					.map(graph -> createEntity(graph, dataset))));
+		})).flatMap(Function.identity())
+				.orElseThrow(() -> new IllegalStateException("Could not read the entities from the store."))
+				.orElse(null);
+	}
+	
+	/**
+	 * Finds the graphs of all entities of this repository sorted by their names.
+	 * 
+	 * Instead of scanning the names of all graphs in the dataset (including the
+	 * possibly large data graphs), the rdf:type statements of the entity graphs are
+	 * looked up by their predicate and object, which the stores answer from their indexes.
+	 */
+	private List<String> findGraphIdsOfEntities(Dataset dataset) {
+		final Iterator<Quad> typeStatements = dataset.asDatasetGraph()
+				.find(Node.ANY, Node.ANY, RDF.type.asNode(), NodeFactory.createURI(getRdfClass()));
+		try {
+			final List<String> graphIds = new ArrayList<>();
+			while(typeStatements.hasNext()){
+				final Quad quad = typeStatements.next();
+				if(isGraphOfEntityInstance(quad)){
+					graphIds.add(quad.getGraph().getURI());
+				}
+			}
+			Collections.sort(graphIds);
+			return graphIds;
+		} finally {
+			Iter.close(typeStatements);
+		}
+	}
+	
+	private boolean isGraphOfEntityInstance(Quad quad){
+		return quad.getGraph().isURI() && quad.getSubject().isURI() 
+				&& quad.getGraph().getURI().equals(graphIdOf(quad.getSubject().getURI()));
 	}
 	
 	@Override
 	public Optional<T> findById(R id) {
 		checkNotNull(id, "Could not find entity as id is null.");
+		final String graphId = generateGraphId(id);
+		final Optional<Model> snapshot = cache.find(graphId);
+		if(snapshot.isPresent()){
+			return Optional.of(createEntity(snapshot.get()));
+		}
+		final long generation = cache.generation();
 		return store.readWithConnection(connection -> connection.as(Dataset.class).map(dataset -> {
-			return createEntity(generateGraphId(id), dataset);
+			return loadEntity(graphId, dataset, generation);
 		})).get();
 	}
 
+	@Override
+	public List<T> findAllById(List<R> ids) {
+		checkNotNull(ids, "Could not find entities as ids are null.");
+		ids.forEach(id -> checkNotNull(id, "Could not find entity as id is null."));
+		final Map<R, T> entities = new HashMap<>();
+		ids.forEach(id -> cache.find(generateGraphId(id)).ifPresent(snapshot -> entities.put(id, createEntity(snapshot))));
+		final List<R> missingIds = ids.stream().filter(id -> !entities.containsKey(id)).collect(Collectors.toList());
+		if(!missingIds.isEmpty()){
+			final long generation = cache.generation();
+			store.readWithConnection(connection -> connection.as(Dataset.class).map(dataset -> {
+				missingIds.forEach(id -> Optional.ofNullable(loadEntity(generateGraphId(id), dataset, generation))
+						.ifPresent(entity -> entities.put(id, entity)));
+				return entities;
+			}));
+		}
+		return ids.stream().map(entities::get).filter(Objects::nonNull).collect(Collectors.toList());
+	}
+
 	private T createEntity(String graphId, Dataset dataset) {
 		final Model model = dataset.getNamedModel(graphId);
 		if(model.isEmpty()) return null;
+		return createEntity(model);
+	}
+	
+	private T loadEntity(String graphId, Dataset dataset, long generation) {
+		final Model model = dataset.getNamedModel(graphId);
+		if(model.isEmpty()) return null;
+		return createEntity(cache.isEnabled() ? cache.put(graphId, model, generation) : model);
+	}
+	
+	private T createEntity(Model model) {
 		return transformation.inverse().get().apply(model);
 	}
 
 	@Override
 	public long deleteAll(List<T> entities) {
 		entities.forEach(this::checkEntityToBeNotNullAndHasIdSet);
-		return store.writeWithConnection(connection -> connection.as(Dataset.class).map(dataset -> 
-			entities.stream().mapToLong(entity -> deleteGraphsOfEntity(entity, dataset)).sum()
-		)).get().get();
+		try {
+			return store.writeWithConnection(connection -> connection.as(Dataset.class).map(dataset -> 
+				entities.stream().mapToLong(entity -> deleteGraphsOfEntity(entity, dataset)).sum()
+			)).get().get();
+		} finally {
+			entities.forEach(this::evict);
+		}
 	}
 
 	@Override
 	public long delete(T entity) {
 		checkEntityToBeNotNullAndHasIdSet(entity);
-		return store.writeWithConnection(connection -> connection.as(Dataset.class).map(dataset -> {
-			return deleteGraphsOfEntity(entity, dataset);
-		})).get().get();
+		try {
+			return store.writeWithConnection(connection -> connection.as(Dataset.class).map(dataset -> {
+				return deleteGraphsOfEntity(entity, dataset);
+			})).get().get();
+		} finally {
+			evict(entity);
+		}
 	}
 
 	protected final void checkEntityToBeNotNullAndHasIdSet(T entity) {
@@ -183,10 +298,22 @@ public abstract class AbstractEntityRepository<T extends Entity<R>, R> implement
 				String.format("Id of %s is null. Please set the Id as Uri.", entity.getClass().getSimpleName()));
 	}
 	
-	private Long deleteGraphsOfEntity(T entity, Dataset dataset) {
+	final Long deleteGraphsOfEntity(T entity, Dataset dataset) {
+		evict(entity);
 		return deleteGeneratedGraph(dataset, entity) + deleteGraphNamedLikeEntity(dataset, entity);
 	}
 	
+	/**
+	 * Removes the cached snapshot of the entity.
+	 * 
+	 * Snapshots are already removed while the entity is written. As a concurrent
+	 * read may cache the state before the write until it is committed, writers
+	 * must evict the entity again after the commit.
+	 */
+	void evict(T entity) {
+		cache.invalidate(generateGraphId(entity));
+	}
+	
 	private Long deleteGeneratedGraph(Dataset dataset, T entity) {
 		final String graphUri = generateGraphId(entity);
 		return deleteNamedGraph(dataset, graphUri);
@@ -197,7 +324,10 @@ public abstract class AbstractEntityRepository<T extends Entity<R>, R> implement
 	}
 	
 	private String generateGraphId(R id) {
-		final String stringId = id.toString();
+		return graphIdOf(id.toString());
+	}
+	
+	private static String graphIdOf(String stringId) {
 		return stringId.endsWith("/") ? stringId + "graph" : stringId + "/graph";
 	}
 
@@ -24,6 +24,14 @@ public class DataBucketRepository extends PartialDataStore<DataBucket, String> {
 		super(store);
 	}
 
+	public DataBucketRepository(Store store, EntityCache cache) {
+		super(store, cache);
+	}
+
+	public DataBucketRepository(Store store, EntityCache cache, DataCache dataCache) {
+		super(store, cache, dataCache);
+	}
+
 	@Override
 	protected Class<DataBucket> getEntityType() {
 		return DataBucket.class;
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.persistence;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Optional;
+
+import org.apache.jena.rdf.model.Model;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Cache of the data attached to schemas and data buckets.
+ * 
+ * <p>
+ * A {@link PartialDataStore} using the cache keeps a detached, read-only copy
+ * of the data of each entity it found data for and returns the copy as long
+ * as the data is not changed. The cache is bounded by the total number of
+ * cached triples; the least recently used data is evicted first. Data with
+ * more triples than the cache can hold is never cached.
+ * 
+ * <p>
+ * The cached data is invalidated when data is added to its entity or when
+ * its entity is deleted.
+ */
+public final class DataCache {
+	
+	private static final DataCache DISABLED = new DataCache(new GraphSnapshots(CacheBuilder.newBuilder().maximumSize(0).build(), false), 0);
+	
+	private final GraphSnapshots snapshots;
+	private final long maximumTriples;
+	
+	private DataCache(GraphSnapshots snapshots, long maximumTriples) {
+		this.snapshots = snapshots;
+		this.maximumTriples = maximumTriples;
+	}
+	
+	/**
+	 * Creates a cache holding data of at most {@code maximumTriples} triples in total.
+	 * 
+	 * @param maximumTriples
+	 *            of all cached data
+	 * @return new cache
+	 */
+	public static DataCache withMaximumTriples(long maximumTriples) {
+		checkArgument(maximumTriples >= 0, "Maximum number of triples must not be negative.");
+		// One segment, since Guava splits the maximum weight across its segments 
+		// and would evict data heavier than a segment right after it has been cached
+		return new DataCache(new GraphSnapshots(CacheBuilder.newBuilder()
+				.concurrencyLevel(1)
+				.maximumWeight(maximumTriples)
+				.<String, Model>weigher((graphId, data) -> (int) Math.min(Integer.MAX_VALUE, data.size()))
+				.recordStats()
+				.<String, Model>build(), true), maximumTriples);
+	}
+	
+	/**
+	 * Returns a cache which never holds data.
+	 * 
+	 * @return disabled cache
+	 */
+	public static DataCache disabled() {
+		return DISABLED;
+	}
+	
+	/**
+	 * Returns hit, miss and eviction counts since the cache has been created.
+	 * 
+	 * @return statistics of this cache
+	 */
+	public CacheStats stats() {
+		return snapshots.stats();
+	}
+	
+	/**
+	 * Returns the approximate number of entities whose data is cached.
+	 * 
+	 * @return number of cached graphs
+	 */
+	public long size() {
+		return snapshots.size();
+	}
+	
+	/**
+	 * Removes all data from the cache.
+	 */
+	public void invalidateAll() {
+		snapshots.invalidateAll();
+	}
+	
+	boolean isEnabled() {
+		return snapshots.isEnabled();
+	}
+	
+	Optional<Model> find(String graphId) {
+		return snapshots.find(graphId);
+	}
+	
+	long generation() {
+		return snapshots.generation();
+	}
+	
+	/**
+	 * Caches a copy of the data if it fits into the cache.
+	 * 
+	 * @return the cached copy; the given data if it is too large
+	 */
+	Model put(String graphId, Model data, long readInGeneration) {
+		if(data.size() > maximumTriples){
+			return data;
+		}
+		return snapshots.put(graphId, data, readInGeneration);
+	}
+	
+	void invalidate(String graphId) {
+		snapshots.invalidate(graphId);
+	}
+}
@@ -34,6 +34,10 @@ public class DataPoolRepository extends AbstractEntityRepository<DataPool, Strin
 	public DataPoolRepository(Store store) {
 		super(store);
 	}
+
+	public DataPoolRepository(Store store, EntityCache cache) {
+		super(store, cache);
+	}
 	
 	@Override
 	protected void adaptTransformationToRdf() {
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.persistence;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.rdf.model.Model;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Cache of the graphs entities are created from.
+ * 
+ * <p>
+ * Repositories using the cache keep a detached, read-only snapshot of the
+ * graph of each found entity and create the entity from the snapshot the
+ * next time it is requested. Thus, callers always get their own entity
+ * instance while the store is only read once. Snapshots are invalidated
+ * when their entity is saved or deleted, when they exceed the maximum
+ * size, or after their time to live.
+ * 
+ * <p>
+ * A cache may be shared by several repositories of the same store, as the
+ * graph names of entities are unique.
+ */
+public final class EntityCache {
+	
+	private static final EntityCache DISABLED = new EntityCache(new GraphSnapshots(CacheBuilder.newBuilder().maximumSize(0).build(), false));
+	
+	private final GraphSnapshots snapshots;
+	
+	private EntityCache(GraphSnapshots snapshots) {
+		this.snapshots = snapshots;
+	}
+	
+	/**
+	 * Creates a cache holding at most {@code maximumSize} entities, each for at most the given time.
+	 * 
+	 * @param maximumSize
+	 *            of cached entities
+	 * @param timeToLive
+	 *            of a cached entity after it has been loaded
+	 * @param unit
+	 *            of the time to live
+	 * @return new cache
+	 */
+	public static EntityCache withMaximumSizeAndTimeToLive(long maximumSize, long timeToLive, TimeUnit unit) {
+		checkArgument(maximumSize >= 0, "Maximum size must not be negative.");
+		checkArgument(timeToLive >= 0, "Time to live must not be negative.");
+		checkNotNull(unit, "Unit of time to live must not be null.");
+		return new EntityCache(new GraphSnapshots(CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(timeToLive, unit)
+				.recordStats()
+				.<String, Model>build(), true));
+	}
+	
+	/**
+	 * Returns a cache which never holds an entity.
+	 * 
+	 * @return disabled cache
+	 */
+	public static EntityCache disabled() {
+		return DISABLED;
+	}
+	
+	/**
+	 * Returns hit, miss, load and eviction counts since the cache has been created.
+	 * 
+	 * @return statistics of this cache
+	 */
+	public CacheStats stats() {
+		return snapshots.stats();
+	}
+	
+	/**
+	 * Returns the approximate number of cached entities.
+	 * 
+	 * @return number of cached entities
+	 */
+	public long size() {
+		return snapshots.size();
+	}
+	
+	/**
+	 * Removes all entities from the cache.
+	 */
+	public void invalidateAll() {
+		snapshots.invalidateAll();
+	}
+	
+	boolean isEnabled() {
+		return snapshots.isEnabled();
+	}
+	
+	Optional<Model> find(String graphId) {
+		return snapshots.find(graphId);
+	}
+	
+	long generation() {
+		return snapshots.generation();
+	}
+	
+	Model put(String graphId, Model graph, long readInGeneration) {
+		return snapshots.put(graphId, graph, readInGeneration);
+	}
+	
+	void invalidate(String graphId) {
+		snapshots.invalidate(graphId);
+	}
+}
@@ -0,0 +1,405 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.persistence;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.sparql.core.Quad;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.SetMultimap;
+
+/**
+ * Columnar table of the events of a data bucket with XES data.
+ * 
+ * <p>
+ * Each event is a row identified by its index. The events of a case (i.e. a
+ * trace) are stored consecutively and ordered by their timestamp. Cases are
+ * numbered in the order their first event was imported. Activities
+ * ({@code concept:name} of an event) and resources ({@code org:resource}) are
+ * dictionary encoded: a row holds the {@code int} id of its value which is
+ * resolved by {@link #getActivity(int)} and {@link #getResource(int)}.
+ * Timestamps ({@code time:timestamp}) are held as milliseconds since the epoch.
+ * 
+ * <p>
+ * Tables are immutable and built while the data is imported; see {@link EventTables}.
+ */
+public final class EventTable {
+
+	/**
+	 * Id of a missing activity, resource or case name.
+	 */
+	public static final int NONE = -1;
+	
+	/**
+	 * Timestamp of an event without {@code time:timestamp}.
+	 */
+	public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+	
+	private static final EventTable EMPTY = new EventTable(new int[] { 0 }, new int[0], new int[0], new long[0], new String[0], ImmutableMap.of(), new String[0]);
+	
+	private final int[] firstEventOfCase;
+	private final int[] activityIds;
+	private final int[] resourceIds;
+	private final long[] timestamps;
+	private final String[] caseNames;
+	private final String[] activities;
+	private final Map<String, Integer> activityIdsByName;
+	private final String[] resources;
+	
+	/**
+	 * @param activityIdsByName id of each activity; iterated in the order of the ids
+	 */
+	private EventTable(int[] firstEventOfCase, int[] activityIds, int[] resourceIds, long[] timestamps, String[] caseNames, 
+			Map<String, Integer> activityIdsByName, String[] resources) {
+		this.firstEventOfCase = firstEventOfCase;
+		this.activityIds = activityIds;
+		this.resourceIds = resourceIds;
+		this.timestamps = timestamps;
+		this.caseNames = caseNames;
+		this.activities = activityIdsByName.keySet().toArray(new String[activityIdsByName.size()]);
+		this.activityIdsByName = ImmutableMap.copyOf(activityIdsByName);
+		this.resources = resources;
+	}
+	
+	static EventTable empty() {
+		return EMPTY;
+	}
+	
+	/**
+	 * @return number of events
+	 */
+	public int size() {
+		return activityIds.length;
+	}
+	
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+	
+	/**
+	 * @return number of cases
+	 */
+	public int numberOfCases() {
+		return caseNames.length;
+	}
+	
+	/**
+	 * @param caseId of the case
+	 * @return {@code concept:name} of the case; null if it has none
+	 */
+	public String getCaseName(int caseId) {
+		checkElementIndex(caseId, numberOfCases());
+		return caseNames[caseId];
+	}
+	
+	/**
+	 * @param caseId of the case
+	 * @return indexes of the events of the case ordered by their timestamp
+	 */
+	public IntStream eventsOfCase(int caseId) {
+		checkElementIndex(caseId, numberOfCases());
+		return IntStream.range(firstEventOfCase[caseId], firstEventOfCase[caseId + 1]);
+	}
+	
+	/**
+	 * @param event index of the event
+	 * @return id of the case the event belongs to
+	 */
+	public int getCaseId(int event) {
+		checkElementIndex(event, size());
+		final int insertionPoint = Arrays.binarySearch(firstEventOfCase, event);
+		return insertionPoint >= 0 ? insertionPoint : -insertionPoint - 2;
+	}
+	
+	/**
+	 * @param event index of the event
+	 * @return id of the activity of the event; {@link #NONE} if it has none
+	 */
+	public int getActivityId(int event) {
+		checkElementIndex(event, size());
+		return activityIds[event];
+	}
+	
+	/**
+	 * @param activityId id of an activity
+	 * @return name of the activity
+	 */
+	public String getActivity(int activityId) {
+		checkElementIndex(activityId, numberOfActivities());
+		return activities[activityId];
+	}
+	
+	/**
+	 * @return number of distinct activities
+	 */
+	public int numberOfActivities() {
+		return activities.length;
+	}
+	
+	/**
+	 * @param activity name of the activity
+	 * @return id of the activity; {@link #NONE} if no event has the activity
+	 */
+	public int findActivityId(String activity) {
+		return activityIdsByName.getOrDefault(activity, NONE);
+	}
+	
+	/**
+	 * @param event index of the event
+	 * @return id of the resource of the event; {@link #NONE} if it has none
+	 */
+	public int getResourceId(int event) {
+		checkElementIndex(event, size());
+		return resourceIds[event];
+	}
+	
+	/**
+	 * @param resourceId id of a resource
+	 * @return name of the resource
+	 */
+	public String getResource(int resourceId) {
+		checkElementIndex(resourceId, numberOfResources());
+		return resources[resourceId];
+	}
+	
+	/**
+	 * @return number of distinct resources
+	 */
+	public int numberOfResources() {
+		return resources.length;
+	}
+	
+	/**
+	 * @param event index of the event
+	 * @return milliseconds since the epoch; {@link #NO_TIMESTAMP} if it has none
+	 */
+	public long getTimestamp(int event) {
+		checkElementIndex(event, size());
+		return timestamps[event];
+	}
+	
+	/**
+	 * Collects the XES triples of a stream and builds the {@code EventTable} of them.
+	 * 
+	 * <p>
+	 * Besides the events of each trace, only the values of the attributes with a
+	 * relevant key ({@code concept:name}, {@code org:resource} and {@code time:timestamp})
+	 * are kept per node. The triples of any other attribute are held only until its
+	 * key and value are seen. Since the importer streams the triples of an attribute
+	 * consecutively, few attributes are pending at a time.
+	 */
+	static final class Builder extends StreamRDFBase {
+		
+		private static final String NS_XES = "http://www.xes-standard.org/#";
+		private static final String EVENT = NS_XES + "event";
+		private static final String STRING = NS_XES + "string";
+		private static final String DATE = NS_XES + "date";
+		private static final String KEY = NS_XES + "key";
+		private static final String VALUE = NS_XES + "value";
+		private static final String NAME_KEY = "concept:name";
+		private static final String RESOURCE_KEY = "org:resource";
+		private static final String TIMESTAMP_KEY = "time:timestamp";
+		
+		private final SetMultimap<Node, Node> eventsOfTrace = LinkedHashMultimap.create();
+		private final Map<String, Map<Node, String>> valuesOfKey = ImmutableMap.of(
+				NAME_KEY, new HashMap<>(), RESOURCE_KEY, new HashMap<>(), TIMESTAMP_KEY, new HashMap<>());
+		private final Map<Node, PendingAttribute> pendingAttributes = new HashMap<>();
+		
+		/**
+		 * @param sink receiving all triples
+		 * @return stream passing each triple to this builder and to the sink
+		 */
+		StreamRDF tee(StreamRDF sink) {
+			return new StreamRDFWrapper(sink) {
+				@Override
+				public void triple(Triple triple) {
+					Builder.this.triple(triple);
+					super.triple(triple);
+				}
+				
+				@Override
+				public void quad(Quad quad) {
+					Builder.this.quad(quad);
+					super.quad(quad);
+				}
+			};
+		}
+		
+		@Override
+		public void triple(Triple triple) {
+			collect(triple);
+		}
+		
+		@Override
+		public void quad(Quad quad) {
+			collect(quad.asTriple());
+		}
+		
+		private void collect(Triple triple) {
+			switch(triple.getPredicate().getURI()) {
+				case EVENT: 
+					eventsOfTrace.put(triple.getSubject(), triple.getObject());
+					break;
+				case STRING:
+				case DATE:
+					collectOwner(triple.getObject(), triple.getSubject());
+					break;
+				case KEY:
+					if(triple.getObject().isLiteral()) {
+						collectKey(triple.getSubject(), triple.getObject().getLiteralLexicalForm());
+					}
+					break;
+				case VALUE:
+					if(triple.getObject().isLiteral()) {
+						collectValue(triple.getSubject(), triple.getObject().getLiteralLexicalForm());
+					}
+					break;
+				default:
+			}
+		}
+		
+		private void collectOwner(Node attributeNode, Node owner) {
+			final PendingAttribute attribute = pendingAttribute(attributeNode);
+			attribute.owner = owner;
+			complete(attributeNode, attribute);
+		}
+		
+		private void collectKey(Node attributeNode, String key) {
+			final PendingAttribute attribute = pendingAttribute(attributeNode);
+			attribute.key = key;
+			if(!isRelevant(key)) {
+				attribute.value = null;
+			}
+			complete(attributeNode, attribute);
+		}
+		
+		private void collectValue(Node attributeNode, String value) {
+			final PendingAttribute attribute = pendingAttribute(attributeNode);
+			attribute.hasValue = true;
+			if(attribute.key == null || isRelevant(attribute.key)) {
+				attribute.value = value;
+			}
+			complete(attributeNode, attribute);
+		}
+		
+		private PendingAttribute pendingAttribute(Node attributeNode) {
+			return pendingAttributes.computeIfAbsent(attributeNode, node -> new PendingAttribute());
+		}
+		
+		/**
+		 * Keeps the value of an attribute with a relevant key once its owner is seen as well
+		 * and discards the attribute once it is complete.
+		 */
+		private void complete(Node attributeNode, PendingAttribute attribute) {
+			if(attribute.key == null || !attribute.hasValue) {
+				return;
+			}
+			if(!isRelevant(attribute.key)) {
+				pendingAttributes.remove(attributeNode);
+			} else if(attribute.owner != null) {
+				valuesOfKey.get(attribute.key).putIfAbsent(attribute.owner, attribute.value);
+				pendingAttributes.remove(attributeNode);
+			}
+		}
+		
+		private boolean isRelevant(String key) {
+			return valuesOfKey.containsKey(key);
+		}
+		
+		EventTable build() {
+			if(eventsOfTrace.isEmpty()) {
+				return EMPTY;
+			}
+			final int numberOfCases = eventsOfTrace.keySet().size();
+			final int numberOfEvents = eventsOfTrace.size();
+			final int[] firstEventOfCase = new int[numberOfCases + 1];
+			final int[] activityIds = new int[numberOfEvents];
+			final int[] resourceIds = new int[numberOfEvents];
+			final long[] timestamps = new long[numberOfEvents];
+			final String[] caseNames = new String[numberOfCases];
+			final Map<String, Integer> activities = new LinkedHashMap<>();
+			final Map<String, Integer> resources = new LinkedHashMap<>();
+			int caseId = 0;
+			int event = 0;
+			for(Node trace : eventsOfTrace.keySet()) {
+				firstEventOfCase[caseId] = event;
+				caseNames[caseId] = findValue(trace, NAME_KEY);
+				final Map<Node, Long> timestampOfEvent = new HashMap<>();
+				eventsOfTrace.get(trace).forEach(eventNode -> timestampOfEvent.put(eventNode, parseTimestamp(findValue(eventNode, TIMESTAMP_KEY))));
+				final List<Node> eventsOfCase = new ArrayList<>(eventsOfTrace.get(trace));
+				eventsOfCase.sort(Comparator.comparing(timestampOfEvent::get));
+				for(Node eventNode : eventsOfCase) {
+					activityIds[event] = encode(findValue(eventNode, NAME_KEY), activities);
+					resourceIds[event] = encode(findValue(eventNode, RESOURCE_KEY), resources);
+					timestamps[event] = timestampOfEvent.get(eventNode);
+					event++;
+				}
+				caseId++;
+			}
+			firstEventOfCase[numberOfCases] = event;
+			return new EventTable(firstEventOfCase, activityIds, resourceIds, timestamps, caseNames, activities, 
+					resources.keySet().toArray(new String[resources.size()]));
+		}
+		
+		private String findValue(Node node, String key) {
+			return valuesOfKey.get(key).get(node);
+		}
+		
+		private static int encode(String value, Map<String, Integer> dictionary) {
+			return value == null ? NONE : dictionary.computeIfAbsent(value, newValue -> dictionary.size());
+		}
+		
+		private static long parseTimestamp(String value) {
+			if(value == null) {
+				return NO_TIMESTAMP;
+			}
+			try {
+				return ZonedDateTime.parse(value).toInstant().toEpochMilli();
+			} catch (DateTimeParseException e) {
+				return NO_TIMESTAMP;
+			}
+		}
+		
+		/**
+		 * Triples of an attribute seen so far.
+		 */
+		private static final class PendingAttribute {
+			
+			private Node owner;
+			private String key;
+			private String value;
+			private boolean hasValue;
+		}
+	}
+}
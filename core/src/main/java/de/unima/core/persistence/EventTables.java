@@ -0,0 +1,120 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.persistence;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Materialized {@link EventTable}s of data buckets.
+ * 
+ * <p>
+ * A {@link PersistenceService} using the tables builds the table of a data bucket 
+ * while its data is added; from the triples passing into the store. The table of 
+ * a bucket whose data was added before, e.g. by another service, is built from
+ * the stored data on its first request. Tables are held in memory until the data 
+ * of their bucket is replaced or the bucket is removed.
+ * 
+ * <p>
+ * While a table is built, the nodes of all traces and events are held in memory
+ * together with the values of their {@code concept:name}, {@code org:resource} and
+ * {@code time:timestamp} attributes; other attributes are dropped as soon as their
+ * key is seen. A built table holds an {@code int} per event for its activity and resource,
+ * a {@code long} for its timestamp, the name of each case and the distinct activities
+ * and resources.
+ * 
+ * <p>
+ * Each invalidation starts a new generation, so that a table which was built
+ * from data read before an invalidation is never materialized. Readers pass the
+ * generation obtained before reading the data to {@link #put(String, EventTable, long)}.
+ */
+public final class EventTables {
+
+	private static final EventTables DISABLED = new EventTables(false);
+	
+	private final boolean isEnabled;
+	private final Map<String, EventTable> tables = new ConcurrentHashMap<>();
+	private long generation;
+	
+	private EventTables(boolean isEnabled) {
+		this.isEnabled = isEnabled;
+	}
+	
+	/**
+	 * Creates tables which are held in memory.
+	 * 
+	 * @return new, empty tables
+	 */
+	public static EventTables inMemory() {
+		return new EventTables(true);
+	}
+	
+	/**
+	 * Returns tables which are never materialized.
+	 * 
+	 * @return disabled tables
+	 */
+	public static EventTables disabled() {
+		return DISABLED;
+	}
+	
+	/**
+	 * @return number of materialized tables
+	 */
+	public long size() {
+		return tables.size();
+	}
+	
+	/**
+	 * Discards all materialized tables.
+	 */
+	public synchronized void invalidateAll() {
+		generation++;
+		tables.clear();
+	}
+	
+	boolean isEnabled() {
+		return isEnabled;
+	}
+	
+	Optional<EventTable> find(String dataBucketId) {
+		return Optional.ofNullable(tables.get(dataBucketId));
+	}
+	
+	synchronized long generation() {
+		return generation;
+	}
+	
+	void put(String dataBucketId, EventTable table) {
+		if(isEnabled) {
+			tables.put(dataBucketId, table);
+		}
+	}
+	
+	synchronized void put(String dataBucketId, EventTable table, long readInGeneration) {
+		if(readInGeneration == generation) {
+			put(dataBucketId, table);
+		}
+	}
+	
+	synchronized void invalidate(String dataBucketId) {
+		if(isEnabled) {
+			generation++;
+			tables.remove(dataBucketId);
+		}
+	}
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.persistence;
+
+import java.util.Optional;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.apache.jena.sparql.graph.GraphReadOnly;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Detached, read-only snapshots of named graphs backing {@link EntityCache} and {@link DataCache}.
+ * 
+ * <p>
+ * Graphs are invalidated while they are written and again after the write
+ * has been committed. Each invalidation starts a new generation, so that a
+ * snapshot which was read before an invalidation is never cached. Readers
+ * pass the generation obtained before opening their transaction to
+ * {@link #put(String, Model, long)}.
+ */
+final class GraphSnapshots {
+
+	private final Cache<String, Model> snapshots;
+	private final boolean enabled;
+	private long generation;
+	
+	GraphSnapshots(Cache<String, Model> snapshots, boolean enabled) {
+		this.snapshots = snapshots;
+		this.enabled = enabled;
+	}
+	
+	boolean isEnabled() {
+		return enabled;
+	}
+	
+	CacheStats stats() {
+		return snapshots.stats();
+	}
+	
+	long size() {
+		return snapshots.size();
+	}
+	
+	Optional<Model> find(String graphId) {
+		return Optional.ofNullable(snapshots.getIfPresent(graphId));
+	}
+	
+	synchronized long generation() {
+		return generation;
+	}
+	
+	/**
+	 * Caches a detached, read-only copy of the graph.
+	 * 
+	 * @return the copy
+	 */
+	Model put(String graphId, Model graph, long readInGeneration) {
+		final Model snapshot = snapshotOf(graph);
+		synchronized(this){
+			if(readInGeneration == generation){
+				snapshots.put(graphId, snapshot);
+			}
+		}
+		return snapshot;
+	}
+	
+	synchronized void invalidate(String graphId) {
+		if(!enabled){
+			return;
+		}
+		generation++;
+		snapshots.invalidate(graphId);
+	}
+	
+	synchronized void invalidateAll() {
+		if(!enabled){
+			return;
+		}
+		generation++;
+		snapshots.invalidateAll();
+	}
+	
+	private static Model snapshotOf(Model graph) {
+		final Graph copy = GraphFactory.createGraphMem();
+		GraphUtil.addInto(copy, graph.getGraph());
+		return ModelFactory.createModelForGraph(new GraphReadOnly(copy));
+	}
+}
@@ -15,12 +15,21 @@
  *******************************************************************************/
 package de.unima.core.persistence;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.Quad;
 
 import de.unima.core.domain.model.Entity;
 import de.unima.core.storage.Store;
@@ -33,22 +42,163 @@ import de.unima.core.storage.Store;
  */
 public abstract class PartialDataStore<T extends Entity<R>, R> extends AbstractEntityRepository<T, R> {
 
+	/**
+	 * Number of triples which are written in one transaction by
+	 * {@link #addDataToEntity(Entity, Consumer)}.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 50000;
+
+	protected final DataCache dataCache;
+
 	public PartialDataStore(Store store) {
-		super(store);
+		this(store, EntityCache.disabled());
+	}
+
+	public PartialDataStore(Store store, EntityCache cache) {
+		this(store, cache, DataCache.disabled());
+	}
+
+	public PartialDataStore(Store store, EntityCache cache, DataCache dataCache) {
+		super(store, cache);
+		this.dataCache = checkNotNull(dataCache, "Data cache must not be null. Use DataCache.disabled() instead.");
 	}
 
 	public Optional<R> addDataToEntity(T entity, Model data){
 		checkEntityToBeNotNullAndHasIdSet(entity);
 		checkNotNull(data, "Data must not be null");
-		return store.writeWithConnection(connection -> connection.as(Dataset.class).map(dataset -> {
-			dataset.addNamedModel(entity.getId().toString(), data);
-			return entity.getId();
-		})).get();
+		try {
+			return store.writeWithConnection(connection -> connection.as(Dataset.class).map(dataset -> {
+				return addDataToEntityInDataSet(entity, data, dataset);
+			})).get();
+		} finally {
+			evict(entity);
+		}
+	}
+	
+	final R addDataToEntityInDataSet(T entity, Model data, Dataset dataset){
+		dataCache.invalidate(entity.getId().toString());
+		dataset.addNamedModel(entity.getId().toString(), data);
+		return entity.getId();
+	}
+	
+	/**
+	 * Also removes the cached data of the entity.
+	 */
+	@Override
+	void evict(T entity) {
+		super.evict(entity);
+		dataCache.invalidate(entity.getId().toString());
+	}
+
+	/**
+	 * Replaces the data of given entity with the triples passed to the
+	 * {@link StreamRDF}.
+	 * 
+	 * <p> In contrast to {@link #addDataToEntity(Entity, Model)}, the data is
+	 * not materialised. The triples are written in batches of
+	 * {@link #DEFAULT_BATCH_SIZE} triples, each in its own write transaction.
+	 * Thus, the data of the entity is incomplete if the producer fails.
+	 * 
+	 * @param entity to which the data is attached
+	 * @param data producer which passes all triples to the given target
+	 * @return id of the entity
+	 */
+	public Optional<R> addDataToEntity(T entity, Consumer<? super StreamRDF> data){
+		return addDataToEntity(entity, data, DEFAULT_BATCH_SIZE);
+	}
+	
+	/**
+	 * Replaces the data of given entity with the triples passed to the
+	 * {@link StreamRDF} and writes them in batches of given size.
+	 * 
+	 * @param entity to which the data is attached
+	 * @param data producer which passes all triples to the given target
+	 * @param batchSize maximal number of triples written in one transaction
+	 * @return id of the entity
+	 * @see #addDataToEntity(Entity, Consumer)
+	 */
+	public Optional<R> addDataToEntity(T entity, Consumer<? super StreamRDF> data, int batchSize){
+		checkEntityToBeNotNullAndHasIdSet(entity);
+		checkNotNull(data, "Data must not be null");
+		checkArgument(batchSize > 0, "Batch size must be positive but was %s", batchSize);
+		final String graphUri = entity.getId().toString();
+		try {
+			store.writeWithConnection(connection -> connection.as(Dataset.class).map(dataset -> {
+				dataCache.invalidate(graphUri);
+				dataset.removeNamedModel(graphUri);
+				return graphUri;
+			}));
+			final BatchWriter writer = new BatchWriter(graphUri, batchSize);
+			data.accept(writer);
+			writer.flush();
+			return Optional.of(entity.getId());
+		} finally {
+			evict(entity);
+		}
 	}
 
+	/**
+	 * Finds the data attached to the entity.
+	 * 
+	 * <p> If the data is cached, a read-only copy is returned.
+	 * 
+	 * @param entity whose data should be found
+	 * @return the data; empty if the entity has no data
+	 */
 	public Optional<Model> findDataOfEntity(T entity) {
 		checkEntityToBeNotNullAndHasIdSet(entity);
-		return store.readWithConnection(connection -> connection.as(Dataset.class).map(dataset -> dataset.getNamedModel(entity.getId().toString())).filter(model -> model.size() > 0)).get();
+		final String graphUri = entity.getId().toString();
+		final Optional<Model> cachedData = dataCache.find(graphUri);
+		if(cachedData.isPresent()){
+			return cachedData;
+		}
+		final long generation = dataCache.generation();
+		return store.readWithConnection(connection -> connection.as(Dataset.class)
+				.map(dataset -> dataset.getNamedModel(graphUri))
+				.filter(model -> model.size() > 0)
+				.map(model -> dataCache.isEnabled() ? dataCache.put(graphUri, model, generation) : model)).get();
+	}
+	
+	/**
+	 * Collects triples and writes them into the named graph
+	 * as soon as the batch is full.
+	 */
+	private class BatchWriter extends StreamRDFBase {
+		
+		private final String graphUri;
+		private final int batchSize;
+		private List<Triple> batch;
+		
+		private BatchWriter(String graphUri, int batchSize) {
+			this.graphUri = graphUri;
+			this.batchSize = batchSize;
+			this.batch = new ArrayList<>(batchSize);
+		}
+		
+		@Override
+		public void triple(Triple triple) {
+			batch.add(triple);
+			if(batch.size() >= batchSize){
+				flush();
+			}
+		}
+		
+		@Override
+		public void quad(Quad quad) {
+			triple(quad.asTriple());
+		}
+		
+		private void flush() {
+			if(batch.isEmpty()){
+				return;
+			}
+			final List<Triple> triples = batch;
+			store.writeWithConnection(connection -> connection.as(Dataset.class).map(dataset -> {
+				GraphUtil.add(dataset.getNamedModel(graphUri).getGraph(), triples);
+				return triples.size();
+			}));
+			batch = new ArrayList<>(batchSize);
+		}
 	}
 
 }
@@ -15,16 +15,22 @@
  *******************************************************************************/
 package de.unima.core.persistence;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.system.StreamOps;
+import org.apache.jena.riot.system.StreamRDF;
 import org.hashids.Hashids;
 
 import de.unima.core.domain.model.DataBucket;
 import de.unima.core.domain.model.DataPool;
+import de.unima.core.domain.model.Entity;
 import de.unima.core.domain.model.Project;
 import de.unima.core.domain.model.Repository;
 import de.unima.core.domain.model.Schema;
@@ -38,6 +44,10 @@ public class PersistenceService {
 	private final static String REPOSITORY_URI = "http://www.uni-mannheim.de/spa/Repository/single";
 	
 	private final Random rand;
+	private final Store store;
+	private final EntityCache entityCache;
+	private final DataCache dataCache;
+	private final EventTables eventTables;
 	private final RepositoryRepository repositoryRepository;
 	private final SchemaRepository schemaRepository;
 	private final ProjectRepository projectRepository;
@@ -45,13 +55,117 @@ public class PersistenceService {
 	private final DataBucketRepository dataBucketRepository;
 	
 	PersistenceService(Store store) {
-		this.repositoryRepository = new RepositoryRepository(store);
-		this.schemaRepository = new SchemaRepository(store);
-		this.projectRepository = new ProjectRepository(store);
-		this.dataPoolRepository = new DataPoolRepository(store);
-		this.dataBucketRepository = new DataBucketRepository(store);
+		this(store, EntityCache.disabled());
+	}
+	
+	PersistenceService(Store store, EntityCache entityCache) {
+		this(store, entityCache, DataCache.disabled());
+	}
+	
+	PersistenceService(Store store, EntityCache entityCache, DataCache dataCache) {
+		this(store, entityCache, dataCache, EventTables.disabled());
+	}
+	
+	PersistenceService(Store store, EntityCache entityCache, DataCache dataCache, EventTables eventTables) {
+		this.store = store;
+		this.entityCache = entityCache;
+		this.dataCache = dataCache;
+		this.eventTables = eventTables;
+		this.repositoryRepository = new RepositoryRepository(store, entityCache);
+		this.schemaRepository = new SchemaRepository(store, entityCache, dataCache);
+		this.projectRepository = new ProjectRepository(store, entityCache);
+		this.dataPoolRepository = new DataPoolRepository(store, entityCache);
+		this.dataBucketRepository = new DataBucketRepository(store, entityCache, dataCache);
 		this.rand = new Random();
 	}
+	
+	/**
+	 * Returns a {@code PersistenceService} for the same store which caches
+	 * found entities in the given cache.
+	 * 
+	 * <p>
+	 * All services of a store which are used concurrently must share the same
+	 * cache. Otherwise, a service may return entities which have been changed
+	 * by another service.
+	 * 
+	 * @param entityCache
+	 *            for found entities
+	 * @return service using the cache
+	 */
+	public PersistenceService withEntityCache(EntityCache entityCache) {
+		return new PersistenceService(store, checkNotNull(entityCache, "Entity cache must not be null."), dataCache, eventTables);
+	}
+	
+	/**
+	 * Returns a {@code PersistenceService} for the same store which caches
+	 * found data of schemas and data buckets in the given cache.
+	 * 
+	 * <p>
+	 * All services of a store which are used concurrently must share the same
+	 * cache. Otherwise, a service may return data which has been changed
+	 * by another service.
+	 * 
+	 * @param dataCache
+	 *            for found data
+	 * @return service using the cache
+	 */
+	public PersistenceService withDataCache(DataCache dataCache) {
+		return new PersistenceService(store, entityCache, checkNotNull(dataCache, "Data cache must not be null."), eventTables);
+	}
+	
+	/**
+	 * Returns a {@code PersistenceService} for the same store which
+	 * materializes the {@link EventTable} of each data bucket with XES data in
+	 * the given tables.
+	 * 
+	 * <p>
+	 * All services of a store which are used concurrently must share the same
+	 * tables.
+	 * 
+	 * @param eventTables
+	 *            for the event tables of data buckets
+	 * @return service using the tables
+	 */
+	public PersistenceService withEventTables(EventTables eventTables) {
+		return new PersistenceService(store, entityCache, dataCache, checkNotNull(eventTables, "Event tables must not be null."));
+	}
+	
+	/**
+	 * Returns the cache of found entities.
+	 * 
+	 * @return entity cache; disabled if none is used
+	 */
+	public EntityCache getEntityCache() {
+		return entityCache;
+	}
+	
+	/**
+	 * Returns the cache of found data.
+	 * 
+	 * @return data cache; disabled if none is used
+	 */
+	public DataCache getDataCache() {
+		return dataCache;
+	}
+	
+	/**
+	 * Returns the materialized event tables.
+	 * 
+	 * @return event tables; disabled if none are materialized
+	 */
+	public EventTables getEventTables() {
+		return eventTables;
+	}
+	
+	/**
+	 * Creates a new {@link UnitOfWork} which writes all collected changes in
+	 * one transaction.
+	 * 
+	 * @return empty unit of work
+	 */
+	public UnitOfWork createUnitOfWork() {
+		return new UnitOfWork(store, repositoryRepository, schemaRepository, projectRepository, dataPoolRepository, dataBucketRepository);
+	}
 
 	/**
 	 * Creates a new {@link Project} with generated URI.
@@ -68,8 +182,7 @@ public class PersistenceService {
 		final Repository repository = findOrCreateSingleRepository();
 		final Project project = new Project(createId(Vocabulary.Project), label, repository);
 		repository.addProject(project);
-		repositoryRepository.save(repository);
-		projectRepository.save(project);
+		createUnitOfWork().save(repository).save(project).commit();
 		return project;
 	}
 	
@@ -92,7 +205,9 @@ public class PersistenceService {
 	 * 
 	 * <p>
 	 * All {@code DataPool}s and linked {@code Schema}s of the project are
-	 * loaded.
+	 * loaded. The {@code DataPool}s are loaded together on first access of
+	 * the project's pools; likewise, the {@code DataBucket}s of each pool
+	 * are loaded together on first access of the pool's buckets.
 	 * 
 	 * @param id
 	 *            as URI; for example: http://www.test.com/1
@@ -100,38 +215,32 @@ public class PersistenceService {
 	 */
 	public Optional<Project> findProjectById(String id) {
 		final Optional<Project> foundProject = projectRepository.findById(id);
-		loadAndAddDataPoolsIfPresent(foundProject);
+		foundProject.ifPresent(this::loadDataPoolsOnFirstAccess);
 		loadAndAddSchemassIfPresent(foundProject);
 		return foundProject;
 	}
 
-	private void loadAndAddDataPoolsIfPresent(final Optional<Project> foundProject) {
-		if(!foundProject.isPresent()){
-			return;
-		}
-		final List<DataPool> loadedDataPools = foundProject.get().getDataPools()
-			.stream()
-			.map(pool -> findDataPoolById(pool.getId()))
-			.filter(Optional::isPresent)
-			.map(Optional::get)
-			.map(pool -> {
-				pool.setProject(foundProject.get());
-				return pool;	
-			})
-			.collect(Collectors.toList());
-		foundProject.get().replaceDataPools(loadedDataPools);
+	private void loadDataPoolsOnFirstAccess(Project project) {
+		final List<String> dataPoolIds = idsOf(project.getDataPools());
+		project.loadDataPoolsOnFirstAccess(() -> {
+			final List<DataPool> loadedDataPools = dataPoolRepository.findAllById(dataPoolIds);
+			loadedDataPools.forEach(pool -> {
+				pool.setProject(project);
+				loadDataBucketsOnFirstAccess(pool);
+			});
+			return loadedDataPools;
+		});
+	}
+	
+	private static List<String> idsOf(List<? extends Entity<String>> entities) {
+		return entities.stream().map(Entity::getId).collect(Collectors.toList());
 	}
 	
 	private void loadAndAddSchemassIfPresent(Optional<Project> foundProject) {
 		if(!foundProject.isPresent()){
 			return;
 		}
-		final List<Schema> loadedSchemas = foundProject.get().getLinkedSchemas()
-			.stream()
-			.map(schema -> schemaRepository.findById(schema.getId()))
-			.filter(Optional::isPresent)
-			.map(Optional::get)
-			.collect(Collectors.toList());
+		final List<Schema> loadedSchemas = schemaRepository.findAllById(idsOf(foundProject.get().getLinkedSchemas()));
 		foundProject.get().replaceLinkedSchemas(loadedSchemas);
 	}
 	
@@ -148,8 +257,10 @@ public class PersistenceService {
 	 *             if project could not be saved
 	 */
 	public String saveProject(Project project) {
-		project.getDataPools().forEach(this::saveDataPool);
-		return projectRepository.save(project).orElseThrow(() -> new IllegalStateException("Could not save project."));
+		final UnitOfWork unitOfWork = createUnitOfWork();
+		project.getDataPools().forEach(unitOfWork::save);
+		unitOfWork.save(project).commit();
+		return project.getId();
 	}
 	
 	/**
@@ -164,24 +275,23 @@ public class PersistenceService {
 	 * @return number of deleted statements
 	 */
 	public long deleteProject(Project project) {
-		final long totalNumberOfDeletedStatements = deleteDataBuckets(project) + deleteDataPools(project)
-				+ deleteProjectAndSchemaLinks(project);
+		final UnitOfWork unitOfWork = createUnitOfWork();
+		deleteDataBuckets(project, unitOfWork);
+		deleteDataPools(project, unitOfWork);
+		unitOfWork.delete(project);
+		removeProjectFromRepository(project, unitOfWork);
+		final long totalNumberOfDeletedStatements = unitOfWork.commit();
+		project.getDataPools().forEach(this::invalidateEventTables);
 		removeDataPoolsAndSchemasFromProjectEntity(project);
-		removeProjectFromRepository(project);
 		return totalNumberOfDeletedStatements;
 	}
 	
-	private long deleteDataBuckets(Project project) {
-		final List<DataBucket> affectedDataBuckets = project.getDataPools().stream().flatMap(pool -> pool.getDataBuckets().stream()).collect(Collectors.toList());
-		return dataBucketRepository.deleteAll(affectedDataBuckets);
-	}
-	
-	private long deleteDataPools(Project project) {
-		return dataPoolRepository.deleteAll(project.getDataPools());
+	private void deleteDataBuckets(Project project, UnitOfWork unitOfWork) {
+		project.getDataPools().stream().flatMap(pool -> pool.getDataBuckets().stream()).forEach(unitOfWork::delete);
 	}
 	
-	private long deleteProjectAndSchemaLinks(Project project) {
-		return projectRepository.delete(project);
+	private void deleteDataPools(Project project, UnitOfWork unitOfWork) {
+		project.getDataPools().forEach(unitOfWork::delete);
 	}
 
 	private void removeDataPoolsAndSchemasFromProjectEntity(Project project) {
@@ -189,11 +299,11 @@ public class PersistenceService {
 		project.unlinkAllSchemas();
 	}
 	
-	private void removeProjectFromRepository(Project project) {
+	private void removeProjectFromRepository(Project project, UnitOfWork unitOfWork) {
 		final Repository repository = findOrCreateSingleRepository();
 		repository.removeProject(project.getId());
 		project.getRepository().removeProject(project.getId());
-		repositoryRepository.save(repository);
+		unitOfWork.save(repository);
 	}
 
 	/**
@@ -212,10 +322,39 @@ public class PersistenceService {
 	 *             if schema data could not be stored
 	 */
 	public Schema addDataAsNewSchema(String label, Model data) {
+		final Schema schema = new Schema(createId(Vocabulary.Schema), label);
+		final Repository repository = findOrCreateSingleRepository();
+		repository.addSchema(schema);
+		createUnitOfWork().save(schema).addData(schema, data).save(repository).commit();
+		return schema;
+	}
+
+	/**
+	 * Adds the triples produced by given data as new schema to the given
+	 * repository and returns a generated schema Id.
+	 * 
+	 * <p>
+	 * The triples are written in batches directly into the store. Changes
+	 * made to the repository and the created schema are persisted.
+	 * 
+	 * @param label
+	 *            of the new schema
+	 * @param data
+	 *            passing RDF to the given target
+	 * @return created schema
+	 * @throws IllegalStateException
+	 *             if schema data could not be stored
+	 */
+	public Schema addDataAsNewSchema(String label, Consumer<? super StreamRDF> data) {
 		final Schema schema = new Schema(createId(Vocabulary.Schema), label);
 		final Repository repository = findOrCreateSingleRepository();
 		schemaRepository.save(schema);
-		schemaRepository.addDataToEntity(schema, data).orElseThrow(() -> new IllegalStateException("Could not add data to new schema."));
+		try {
+			schemaRepository.addDataToEntity(schema, data).orElseThrow(() -> new IllegalStateException("Could not add data to new schema."));
+		} catch (RuntimeException e) {
+			schemaRepository.delete(schema);
+			throw e;
+		}
 		repository.addSchema(schema);
 		repositoryRepository.save(repository);
 		return schema;
@@ -238,12 +377,12 @@ public class PersistenceService {
 	 */
 	public Schema replaceDataOfSchema(Schema schema, Model data) {
 		final Repository repository = findOrCreateSingleRepository();
-		schemaRepository.save(schema);
-		schemaRepository.addDataToEntity(schema, data).orElseThrow(() -> new IllegalStateException("Could not replace schema data."));
+		final UnitOfWork unitOfWork = createUnitOfWork().save(schema).addData(schema, data);
 		if (!repository.findSchemaById(schema.getId()).isPresent()) {
 			repository.addSchema(schema);
-			repositoryRepository.save(repository);
+			unitOfWork.save(repository);
 		}
+		unitOfWork.commit();
 		return schema;
 	}
 
@@ -259,10 +398,10 @@ public class PersistenceService {
 	 */
 	public long deleteSchema(Schema schema) {
 		final Repository repository = findOrCreateSingleRepository();
-		projectRepository.saveAll(findAndUnlinkSchemaFromProjects(repository, schema));
+		final UnitOfWork unitOfWork = createUnitOfWork();
+		findAndUnlinkSchemaFromProjects(repository, schema).forEach(unitOfWork::save);
 		repository.removeSchema(schema.getId());
-		repositoryRepository.save(repository);
-		return schemaRepository.delete(schema);
+		return unitOfWork.save(repository).delete(schema).commit();
 	}
 
 	private List<Project> findAndUnlinkSchemaFromProjects(Repository repository, Schema schema) {
@@ -323,8 +462,7 @@ public class PersistenceService {
 	public DataPool createPeristentDataPoolForProjectWithGeneratedId(Project project, String label) {
 		final DataPool datapool = new DataPool(createId(Vocabulary.DataPool), label, project);
 		project.addDataPool(datapool);
-		dataPoolRepository.save(datapool);
-		projectRepository.save(project);
+		createUnitOfWork().save(datapool).save(project).commit();
 		return datapool;
 	}
 	
@@ -354,6 +492,7 @@ public class PersistenceService {
 
 	/**
 	 * Finds {@code DataPool} by id and all contained data buckets.
+	 * The data buckets are loaded together on first access.
 	 *
 	 * <p>
 	 * <b>Note:</b> Each found data pool refers to the project it belongs to.
@@ -367,21 +506,13 @@ public class PersistenceService {
 	 */
 	public Optional<DataPool> findDataPoolById(String id) {
 		final Optional<DataPool> foundDataPool = dataPoolRepository.findById(id);
-		loadAndAddDataBucketsIfPresent(foundDataPool);
+		foundDataPool.ifPresent(this::loadDataBucketsOnFirstAccess);
 		return foundDataPool;
 	}
 
-	private void loadAndAddDataBucketsIfPresent(final Optional<DataPool> foundDataPool) {
-		if(!foundDataPool.isPresent()){
-			return;
-		}
-		final List<DataBucket> loadedDataBuckets = foundDataPool.get().getDataBuckets()
-			.stream()
-			.map(bucket -> dataBucketRepository.findById(bucket.getId()))
-			.filter(Optional::isPresent)
-			.map(Optional::get)
-			.collect(Collectors.toList());
-		foundDataPool.get().replaceDataBuckets(loadedDataBuckets);
+	private void loadDataBucketsOnFirstAccess(DataPool dataPool) {
+		final List<String> dataBucketIds = idsOf(dataPool.getDataBuckets());
+		dataPool.loadDataBucketsOnFirstAccess(() -> dataBucketRepository.findAllById(dataBucketIds));
 	}
 	
 	/**
@@ -394,9 +525,14 @@ public class PersistenceService {
 	public void deleteDataPool(DataPool dataPool) {
 		final Project project = dataPool.getProject();
 		project.removeDataPoolById(dataPool.getId());
-		projectRepository.save(project);
-		dataBucketRepository.deleteAll(dataPool.getDataBuckets());
-		dataPoolRepository.delete(dataPool);
+		final UnitOfWork unitOfWork = createUnitOfWork().save(project);
+		dataPool.getDataBuckets().forEach(unitOfWork::delete);
+		unitOfWork.delete(dataPool).commit();
+		invalidateEventTables(dataPool);
+	}
+	
+	private void invalidateEventTables(DataPool dataPool) {
+		dataPool.getDataBuckets().forEach(bucket -> eventTables.invalidate(bucket.getId()));
 	}
 	
 	private String createId(String uri) {
@@ -430,10 +566,50 @@ public class PersistenceService {
 	 */
 	public DataBucket addDataAsNewDataBucketToDataPool(DataPool dataPool, String label, Model data) {
 		final DataBucket bucket = new DataBucket(createId(Vocabulary.DataBucket), label);
+		dataPool.addDataBucket(bucket);
+		createUnitOfWork().save(bucket).addData(bucket, data).save(dataPool).commit();
+		if(eventTables.isEnabled()) {
+			eventTables.put(bucket.getId(), eventTableOf(data));
+		}
+		return bucket;
+	}
+	
+	/**
+	 * Adds the triples produced by given data as new {@link DataBucket} to the
+	 * given {@link DataPool} and returns a generated Id.
+	 * 
+	 * <p>
+	 * The triples are written in batches directly into the store. 
+	 * If the data cannot be produced, the created {@code DataBucket} is removed again.
+	 * 
+	 * <p>
+	 * <b>Note:</b> Changes made to given {@code DataPool} are persisted.
+	 * Further, the created {@code DataBucket} is also persisted.
+	 * 
+	 * @param dataPool
+	 *            of the new {@code DataBucket}
+	 * @param label
+	 *            of the new {@code DataBucket}
+	 * @param data
+	 *            passing RDF to the given target
+	 * @return created {@code DataBucket}
+	 * @throws IllegalStateException
+	 *             if the data could not be stored
+	 */
+	public DataBucket addDataAsNewDataBucketToDataPool(DataPool dataPool, String label, Consumer<? super StreamRDF> data) {
+		final DataBucket bucket = new DataBucket(createId(Vocabulary.DataBucket), label);
+		final EventTable.Builder eventTable = new EventTable.Builder();
+		final Consumer<? super StreamRDF> dataAndEventTable = eventTables.isEnabled() ? target -> data.accept(eventTable.tee(target)) : data;
 		dataBucketRepository.save(bucket);
-		dataBucketRepository.addDataToEntity(bucket, data).orElseThrow(() -> new IllegalStateException("Could not add data as new data bucket."));
+		try {
+			dataBucketRepository.addDataToEntity(bucket, dataAndEventTable).orElseThrow(() -> new IllegalStateException("Could not add data as new data bucket."));
+		} catch (RuntimeException e) {
+			dataBucketRepository.delete(bucket);
+			throw e;
+		}
 		dataPool.addDataBucket(bucket);
 		dataPoolRepository.save(dataPool);
+		eventTables.put(bucket.getId(), eventTable.build());
 		return bucket;
 	}
 	
@@ -449,8 +625,8 @@ public class PersistenceService {
 	 *             if the bucket data could not be stored
 	 */
 	public DataBucket replaceDataBucketWithData(DataBucket bucket, Model data) {
-		dataBucketRepository.save(bucket);
-		dataBucketRepository.addDataToEntity(bucket, data).orElseThrow(() -> new IllegalStateException("Could not replace data bucket."));
+		createUnitOfWork().save(bucket).addData(bucket, data).commit();
+		eventTables.invalidate(bucket.getId());
 		return bucket;
 	}
 
@@ -466,8 +642,9 @@ public class PersistenceService {
 	 */
 	public long removeDataBucketFromDataPool(DataPool dataPool, DataBucket dataBucket) {
 		dataPool.removeDataBucketById(dataBucket.getId());
-		dataPoolRepository.save(dataPool);
-		return dataBucketRepository.delete(dataBucket);
+		final long numberOfDeletedStatements = createUnitOfWork().save(dataPool).delete(dataBucket).commit();
+		eventTables.invalidate(dataBucket.getId());
+		return numberOfDeletedStatements;
 	}
 	
 	/**
@@ -480,4 +657,39 @@ public class PersistenceService {
 	public Optional<Model> findDataOfDataBucket(DataBucket bucket) {
 		return dataBucketRepository.findDataOfEntity(bucket);
 	}
-}
\ No newline at end of file
+	
+	/**
+	 * Finds the {@link EventTable} of the XES data of given {@code DataBucket}.
+	 * 
+	 * <p>
+	 * The table is only available if this service materializes event tables;
+	 * see {@link #withEventTables(EventTables)}. If the table has not been
+	 * materialized yet, it is built from the stored data of the bucket.
+	 * 
+	 * @param bucket
+	 *            which events should be returned
+	 * @return the table if event tables are materialized and data is present;
+	 *         empty otherwise. The table is empty if the data contains no events.
+	 */
+	public Optional<EventTable> findEventTableOfDataBucket(DataBucket bucket) {
+		if(!eventTables.isEnabled()) {
+			return Optional.empty();
+		}
+		final Optional<EventTable> materialized = eventTables.find(bucket.getId());
+		if(materialized.isPresent()) {
+			return materialized;
+		}
+		final long generation = eventTables.generation();
+		return findDataOfDataBucket(bucket).map(data -> {
+			final EventTable table = eventTableOf(data);
+			eventTables.put(bucket.getId(), table, generation);
+			return table;
+		});
+	}
+	
+	private static EventTable eventTableOf(Model data) {
+		final EventTable.Builder eventTable = new EventTable.Builder();
+		StreamOps.sendGraphToStream(data.getGraph(), eventTable);
+		return eventTable.build();
+	}
+}
@@ -20,6 +20,7 @@ import java.nio.file.Paths;
 
 import de.unima.core.storage.StoreSupport;
 import de.unima.core.storage.jena.JenaTDBStore;
+import de.unima.core.storage.jena.VirtuosoStore;
 
 /**
  * Factory different {@link PersistenceService}.
@@ -54,4 +55,8 @@ public class PersistenceServiceFactory {
     	return new PersistenceService(JenaTDBStore.withVirtuoso(url, username, password));
     }
     
+    public static PersistenceService withDataAtVirtuoso(VirtuosoStore store) {
+    	return new PersistenceService(store);
+    }
+    
 }
\ No newline at end of file
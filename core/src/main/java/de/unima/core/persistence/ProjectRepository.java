@@ -35,6 +35,10 @@ public class ProjectRepository extends AbstractEntityRepository<Project, String>
 	public ProjectRepository(Store store) {
 		super(store);
 	}
+
+	public ProjectRepository(Store store, EntityCache cache) {
+		super(store, cache);
+	}
 	
 	@Override
 	protected void adaptTransformationToRdf() {
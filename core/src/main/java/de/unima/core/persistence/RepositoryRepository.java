@@ -32,7 +32,11 @@ import de.unima.core.storage.Store;
 public class RepositoryRepository extends AbstractEntityRepository<Repository, String> {
 
 	public RepositoryRepository(Store store) {
-		super(store);
+		this(store, EntityCache.disabled());
+	}
+
+	public RepositoryRepository(Store store, EntityCache cache) {
+		super(store, cache);
 		addProjectsAndSchemasToRdfTransformation();
 	}
 
@@ -24,6 +24,14 @@ public class SchemaRepository extends PartialDataStore<Schema, String> {
 		super(store);
 	}
 
+	public SchemaRepository(Store store, EntityCache cache) {
+		super(store, cache);
+	}
+
+	public SchemaRepository(Store store, EntityCache cache, DataCache dataCache) {
+		super(store, cache, dataCache);
+	}
+
 	@Override
 	protected Class<Schema> getEntityType() {
 		return Schema.class;
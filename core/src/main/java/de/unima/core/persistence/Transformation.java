@@ -15,22 +15,34 @@
  *******************************************************************************/
 package de.unima.core.persistence;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static de.unima.core.persistence.Transformation.TransformationSupport.readFieldAsType;
 import static org.apache.jena.rdf.model.ResourceFactory.createProperty;
 import static org.apache.jena.rdf.model.ResourceFactory.createResource;
 import static org.apache.jena.rdf.model.ResourceFactory.createStatement;
 import static org.apache.jena.rdf.model.ResourceFactory.createTypedLiteral;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.reflect.ConstructorUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.commons.lang3.reflect.MethodUtils;
 import org.apache.commons.lang3.text.WordUtils;
@@ -99,12 +111,9 @@ public class Transformation<T> {
 				final Model graph = ModelFactory.createDefaultModel();
 				final Resource rdfType = createResource(rdfClass);
 				final Resource subject = graph.createResource(readId(instance), rdfType);
-				final List<Statement> statements = partialTransformers.stream().parallel()
-						.collect(() -> new LinkedList<Statement>(),
-								(list, partialTransformer) -> list
-										.addAll(partialTransformer.apply(instance).apply(subject)),
-						(first, second) -> first.addAll(second));
-				graph.add(statements);
+				for (Function<T, Function<Resource, List<Statement>>> partialTransformer : partialTransformers) {
+					graph.add(partialTransformer.apply(instance).apply(subject));
+				}
 				return graph;
 			};
 		}
@@ -268,13 +277,36 @@ public class Transformation<T> {
 
 	}
 
+	/**
+	 * Reads fields of Java instances and creates new instances.
+	 * 
+	 * Getters and fields are resolved once per class and field name and
+	 * compiled into {@code MethodHandle}s (or, if possible, into plain
+	 * lambdas through the {@code LambdaMetafactory}). Constructors are
+	 * cached per class and argument types. Thus, reflection is only used
+	 * the first time a class is transformed.
+	 */
 	static class TransformationSupport {
+		
+		private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+		
+		private static final ClassValue<Map<String, Function<Object, Object>>> ACCESSORS = new ClassValue<Map<String, Function<Object, Object>>>() {
+			@Override
+			protected Map<String, Function<Object, Object>> computeValue(Class<?> type) {
+				return new ConcurrentHashMap<>();
+			}
+		};
+		
+		private static final ClassValue<Map<List<Class<?>>, MethodHandle>> CONSTRUCTORS = new ClassValue<Map<List<Class<?>>, MethodHandle>>() {
+			@Override
+			protected Map<List<Class<?>>, MethodHandle> computeValue(Class<?> type) {
+				return new ConcurrentHashMap<>();
+			}
+		};
+		
 		static <R> Optional<R> readFieldAsType(Object target, String name, Class<R> type) {
 			try {
-				final Method accessibleMethod = MethodUtils.getAccessibleMethod(target.getClass(), getGetterName(name));
-				final Object value = Optional.ofNullable(accessibleMethod).map(method -> {
-					return invokeWithoutException(target, method);
-				}).orElseGet(() -> readFieldWithoutException(target, name));
+				final Object value = accessorOf(target.getClass(), name).apply(target);
 				return Optional.ofNullable(type.cast(value));
 			} catch (ClassCastException e) {
 				final String message = String.format(
@@ -290,25 +322,116 @@ public class Transformation<T> {
 			}
 		}
 		
+		/**
+		 * Creates a new instance of the given type with the public constructor
+		 * matching the types of the arguments.
+		 * 
+		 * @param type of the instance
+		 * @param arguments passed to the constructor
+		 * @param <R> type of the instance
+		 * @return new instance
+		 * @throws IllegalArgumentException if no matching constructor is accessible
+		 */
+		static <R> R instantiate(Class<R> type, Object... arguments) {
+			final List<Class<?>> argumentTypes = Arrays.stream(arguments)
+					.map(argument -> argument == null ? null : argument.getClass())
+					.collect(Collectors.toList());
+			final MethodHandle constructor = CONSTRUCTORS.get(type)
+					.computeIfAbsent(argumentTypes, key -> compileConstructor(type, key));
+			try {
+				return type.cast(constructor.invokeExact(arguments));
+			} catch (Throwable e) {
+				throw Throwables.propagate(e);
+			}
+		}
+		
+		static Function<Object, Object> accessorOf(Class<?> type, String name) {
+			return ACCESSORS.get(type).computeIfAbsent(name, fieldName -> compileAccessor(type, fieldName));
+		}
+		
 		static String getGetterName(String fieldName) {
 			return "get"+WordUtils.capitalize(fieldName);
 		}
 		
-		static Object invokeWithoutException(Object target, Method method) {
+		private static Function<Object, Object> compileAccessor(Class<?> type, String name) {
+			final Method getter = MethodUtils.getAccessibleMethod(type, getGetterName(name));
+			if (getter != null) {
+				return withoutException(compileGetter(getter));
+			}
+			final Field field = FieldUtils.getField(type, name, true);
+			checkArgument(field != null, "Cannot locate field %s on %s.", name, type);
+			return compileFieldReader(field);
+		}
+		
+		private static Function<Object, Object> withoutException(Function<Object, Object> getter) {
+			return target -> {
+				try {
+					return getter.apply(target);
+				} catch (Exception e) {
+					return null;
+				}
+			};
+		}
+		
+		@SuppressWarnings("unchecked")
+		private static Function<Object, Object> compileGetter(Method getter) {
+			final MethodHandle handle = unreflect(getter);
+			try {
+				final CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", 
+						MethodType.methodType(Function.class),
+						MethodType.methodType(Object.class, Object.class), 
+						handle,
+						MethodType.methodType(getter.getReturnType(), getter.getDeclaringClass()).wrap());
+				return (Function<Object, Object>) site.getTarget().invoke();
+			} catch (Throwable e) {
+				// e.g. the declaring class is not visible from here; fall back to the handle itself
+				return asFunction(handle);
+			}
+		}
+		
+		private static Function<Object, Object> compileFieldReader(Field field) {
+			try {
+				MethodHandle handle = LOOKUP.unreflectGetter(field);
+				if (Modifier.isStatic(field.getModifiers())) {
+					handle = MethodHandles.dropArguments(handle, 0, field.getDeclaringClass());
+				}
+				return asFunction(handle);
+			} catch (IllegalAccessException e) {
+				throw Throwables.propagate(e);
+			}
+		}
+		
+		private static MethodHandle compileConstructor(Class<?> type, List<Class<?>> argumentTypes) {
+			final Constructor<?> constructor = ConstructorUtils.getMatchingAccessibleConstructor(type, 
+					argumentTypes.toArray(new Class<?>[argumentTypes.size()]));
+			checkArgument(constructor != null, "No accessible constructor of %s matches %s.", type, argumentTypes);
 			try {
-				return method.invoke(target);
-			} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-				return null;
+				return LOOKUP.unreflectConstructor(constructor)
+						.asSpreader(Object[].class, argumentTypes.size())
+						.asType(MethodType.methodType(Object.class, Object[].class));
+			} catch (IllegalAccessException e) {
+				throw Throwables.propagate(e);
 			}
 		}
 		
-		static Object readFieldWithoutException(Object target, String name) {
+		private static MethodHandle unreflect(Method method) {
 			try {
-				return FieldUtils.readField(target, name, true);
+				return LOOKUP.unreflect(method);
 			} catch (IllegalAccessException e) {
 				throw Throwables.propagate(e);
 			}
 		}
+		
+		private static Function<Object, Object> asFunction(MethodHandle handle) {
+			final MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+			return target -> {
+				try {
+					return generic.invokeExact(target);
+				} catch (Throwable e) {
+					throw Throwables.propagate(e);
+				}
+			};
+		}
 	}
 	
 }
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.persistence;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.jena.query.Dataset;
+import org.apache.jena.rdf.model.Model;
+
+import de.unima.core.domain.model.DataBucket;
+import de.unima.core.domain.model.DataPool;
+import de.unima.core.domain.model.Entity;
+import de.unima.core.domain.model.Project;
+import de.unima.core.domain.model.Repository;
+import de.unima.core.domain.model.Schema;
+import de.unima.core.storage.Store;
+
+/**
+ * Collects changes of entities and their data and writes all of them in one
+ * transaction.
+ * 
+ * <p>
+ * Nothing is written until {@link #commit()} is called. The entities are
+ * transformed into RDF on commit; thus, the last state of each entity is
+ * persisted. Changes are applied in the order they were added. If any change
+ * fails, none of the changes is persisted.
+ * 
+ * <p>
+ * A {@code UnitOfWork} is created by {@link PersistenceService#createUnitOfWork()}
+ * and is not thread-safe.
+ */
+public class UnitOfWork {
+
+	private final Store store;
+	private final RepositoryRepository repositoryRepository;
+	private final SchemaRepository schemaRepository;
+	private final ProjectRepository projectRepository;
+	private final DataPoolRepository dataPoolRepository;
+	private final DataBucketRepository dataBucketRepository;
+	private final List<Function<Dataset, Long>> changes = new ArrayList<>();
+	private final List<Runnable> evictions = new ArrayList<>();
+
+	UnitOfWork(Store store, RepositoryRepository repositoryRepository, SchemaRepository schemaRepository,
+			ProjectRepository projectRepository, DataPoolRepository dataPoolRepository,
+			DataBucketRepository dataBucketRepository) {
+		this.store = store;
+		this.repositoryRepository = repositoryRepository;
+		this.schemaRepository = schemaRepository;
+		this.projectRepository = projectRepository;
+		this.dataPoolRepository = dataPoolRepository;
+		this.dataBucketRepository = dataBucketRepository;
+	}
+
+	/**
+	 * Saves given {@link Repository}.
+	 * 
+	 * @param repository which should be saved
+	 * @return this unit of work
+	 */
+	public UnitOfWork save(Repository repository) {
+		return save(repositoryRepository, repository);
+	}
+
+	/**
+	 * Saves given {@link Project}.
+	 * 
+	 * <p> Contained {@code DataPool}s are not saved.
+	 * 
+	 * @param project which should be saved
+	 * @return this unit of work
+	 */
+	public UnitOfWork save(Project project) {
+		return save(projectRepository, project);
+	}
+
+	/**
+	 * Saves given {@link DataPool}.
+	 * 
+	 * @param dataPool which should be saved
+	 * @return this unit of work
+	 */
+	public UnitOfWork save(DataPool dataPool) {
+		return save(dataPoolRepository, dataPool);
+	}
+
+	/**
+	 * Saves given {@link Schema}.
+	 * 
+	 * @param schema which should be saved
+	 * @return this unit of work
+	 */
+	public UnitOfWork save(Schema schema) {
+		return save(schemaRepository, schema);
+	}
+
+	/**
+	 * Saves given {@link DataBucket}.
+	 * 
+	 * @param dataBucket which should be saved
+	 * @return this unit of work
+	 */
+	public UnitOfWork save(DataBucket dataBucket) {
+		return save(dataBucketRepository, dataBucket);
+	}
+
+	/**
+	 * Replaces the data of given {@link Schema}.
+	 * 
+	 * @param schema which data should be replaced
+	 * @param data containing RDF
+	 * @return this unit of work
+	 */
+	public UnitOfWork addData(Schema schema, Model data) {
+		return addData(schemaRepository, schema, data);
+	}
+
+	/**
+	 * Replaces the data of given {@link DataBucket}.
+	 * 
+	 * @param dataBucket which data should be replaced
+	 * @param data containing RDF
+	 * @return this unit of work
+	 */
+	public UnitOfWork addData(DataBucket dataBucket, Model data) {
+		return addData(dataBucketRepository, dataBucket, data);
+	}
+
+	/**
+	 * Deletes given {@link Project}.
+	 * 
+	 * @param project which should be deleted
+	 * @return this unit of work
+	 */
+	public UnitOfWork delete(Project project) {
+		return delete(projectRepository, project);
+	}
+
+	/**
+	 * Deletes given {@link DataPool}.
+	 * 
+	 * @param dataPool which should be deleted
+	 * @return this unit of work
+	 */
+	public UnitOfWork delete(DataPool dataPool) {
+		return delete(dataPoolRepository, dataPool);
+	}
+
+	/**
+	 * Deletes given {@link Schema} and its data.
+	 * 
+	 * @param schema which should be deleted
+	 * @return this unit of work
+	 */
+	public UnitOfWork delete(Schema schema) {
+		return delete(schemaRepository, schema);
+	}
+
+	/**
+	 * Deletes given {@link DataBucket} and its data.
+	 * 
+	 * @param dataBucket which should be deleted
+	 * @return this unit of work
+	 */
+	public UnitOfWork delete(DataBucket dataBucket) {
+		return delete(dataBucketRepository, dataBucket);
+	}
+
+	/**
+	 * Writes all collected changes in one write transaction.
+	 * 
+	 * <p> Afterwards, the unit of work is empty and may be reused.
+	 * 
+	 * @return number of statements which have been deleted
+	 * @throws IllegalStateException
+	 *             if the changes could not be written
+	 */
+	public long commit() {
+		final List<Function<Dataset, Long>> pendingChanges = new ArrayList<>(changes);
+		final List<Runnable> pendingEvictions = new ArrayList<>(evictions);
+		changes.clear();
+		evictions.clear();
+		try {
+			return store.writeWithConnection(connection -> connection.as(Dataset.class).map(dataset -> 
+				pendingChanges.stream().mapToLong(change -> change.apply(dataset)).sum()
+			)).flatMap(deletedStatements -> deletedStatements)
+			.orElseThrow(() -> new IllegalStateException("Could not commit unit of work."));
+		} finally {
+			pendingEvictions.forEach(Runnable::run);
+		}
+	}
+
+	private <T extends Entity<R>, R> UnitOfWork save(AbstractEntityRepository<T, R> repository, T entity) {
+		repository.checkEntityToBeNotNullAndHasIdSet(entity);
+		changes.add(dataset -> {
+			repository.saveEntityInDataSetAsNamedModel(entity, dataset);
+			return 0l;
+		});
+		evictions.add(() -> repository.evict(entity));
+		return this;
+	}
+
+	private <T extends Entity<R>, R> UnitOfWork addData(PartialDataStore<T, R> repository, T entity, Model data) {
+		repository.checkEntityToBeNotNullAndHasIdSet(entity);
+		checkNotNull(data, "Data must not be null");
+		changes.add(dataset -> {
+			repository.addDataToEntityInDataSet(entity, data, dataset);
+			return 0l;
+		});
+		evictions.add(() -> repository.evict(entity));
+		return this;
+	}
+
+	private <T extends Entity<R>, R> UnitOfWork delete(AbstractEntityRepository<T, R> repository, T entity) {
+		repository.checkEntityToBeNotNullAndHasIdSet(entity);
+		changes.add(dataset -> repository.deleteGraphsOfEntity(entity, dataset));
+		evictions.add(() -> repository.evict(entity));
+		return this;
+	}
+}
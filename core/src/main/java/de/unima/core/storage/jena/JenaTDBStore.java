@@ -15,7 +15,13 @@
  *******************************************************************************/
 package de.unima.core.storage.jena;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
 import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.ReadWrite;
@@ -25,18 +31,43 @@ import org.apache.jena.tdb.base.file.Location;
 import de.unima.core.storage.Lock;
 import de.unima.core.storage.Store;
 import de.unima.core.storage.StoreConnection;
-import virtuoso.jena.driver.VirtDataset;
 
+/**
+ * Store backed by a Jena {@link Dataset}.
+ * 
+ * <p> Each {@link StoreConnection} runs its own transaction which is identified
+ * by a unique token. Transactions of TDB are bound to the thread which began them.
+ * Thus, any number of threads may read in parallel while one thread writes. 
+ * Connections of Virtuoso are backed by a dataset of their own (see {@link VirtuosoStore}).
+ * 
+ * <p> If a thread already runs a transaction of this store, a nested connection joins it. 
+ * Only the outermost connection commits or aborts. A nested write within a read
+ * transaction is not supported.
+ */
 public class JenaTDBStore implements Store {
 
-	private final Dataset dataset;
+	private static final long NO_TRANSACTION = -1;
+	
+	private final Supplier<Dataset> datasetForConnection;
+	private final boolean isDatasetSharedByConnections;
+	private final AtomicLong lastTransactionToken = new AtomicLong(NO_TRANSACTION);
+	private final ThreadLocal<JenaTdbStoreConnection> outermostConnection = new ThreadLocal<>();
 
 	private JenaTDBStore(Location location){
-		this.dataset = TDBFactory.createDataset(location);
+		final Dataset dataset = TDBFactory.createDataset(location);
+		this.datasetForConnection = () -> dataset;
+		this.isDatasetSharedByConnections = true;
 	}
 	
-	private JenaTDBStore(String url, String username, String password){
-		this.dataset = new VirtDataset(url.toString(), username, password);
+	/**
+	 * Creates a store whose connections are each backed by a dataset of their own.
+	 * The dataset of a connection is closed as soon as its outermost transaction ends.
+	 * 
+	 * @param datasetForConnection opens the dataset of a connection
+	 */
+	protected JenaTDBStore(Supplier<Dataset> datasetForConnection){
+		this.datasetForConnection = datasetForConnection;
+		this.isDatasetSharedByConnections = false;
 	}
 	
 	public static JenaTDBStore withCommonMemoryLocation(String locationId){
@@ -52,7 +83,7 @@ public class JenaTDBStore implements Store {
 	}
 	
 	public static JenaTDBStore withVirtuoso(String url, String username, String password){
-		return new JenaTDBStore(url, username, password);
+		return VirtuosoStore.builder(url, username, password).build();
 	}
 	
 	@Override
@@ -62,6 +93,12 @@ public class JenaTDBStore implements Store {
 	
 	public final class JenaTdbStoreConnection implements StoreConnection {
 		
+		private Dataset dataset;
+		private ReadWrite readWrite;
+		private long transactionToken = NO_TRANSACTION;
+		private long endedTransactionToken = NO_TRANSACTION;
+		private boolean isNested;
+		
 		@Override
 		public boolean areTransactionsSupported() {
 			return true;
@@ -69,24 +106,75 @@ public class JenaTDBStore implements Store {
 	 	
 		@Override
 		public long beginTransaction(Lock lock) {
-			final ReadWrite readWrite = (lock == Lock.READ ? ReadWrite.READ: ReadWrite.WRITE);
-			JenaTDBStore.this.dataset.begin(readWrite);
-			return 0;
+			checkState(transactionToken == NO_TRANSACTION, "Connection already runs transaction %s.", transactionToken);
+			final ReadWrite requested = (lock == Lock.READ ? ReadWrite.READ: ReadWrite.WRITE);
+			final JenaTdbStoreConnection outer = outermostConnection.get();
+			if(outer != null){
+				checkState(requested == ReadWrite.READ || outer.readWrite == ReadWrite.WRITE, 
+						"Cannot write within read transaction %s.", outer.transactionToken);
+				this.dataset = outer.dataset;
+				this.isNested = true;
+			} else {
+				this.dataset = getWrappedDataset();
+				this.dataset.begin(requested);
+				this.isNested = false;
+				outermostConnection.set(this);
+			}
+			this.readWrite = requested;
+			this.transactionToken = lastTransactionToken.incrementAndGet();
+			return transactionToken;
 		}
 		
 		@Override
 		public void commitTransaction(long transactionToken) {
-			JenaTDBStore.this.dataset.commit();
+			endTransaction(transactionToken, Dataset::commit);
 		}
 		
+		/**
+		 * Rolling back the last transaction after it has already ended does nothing; 
+		 * e.g. if its commit failed, it has already been aborted.
+		 */
 		@Override
 		public void rollbackTransaction(long transactionToken) {
-			JenaTDBStore.this.dataset.abort();
+			if(transactionToken != NO_TRANSACTION && transactionToken == endedTransactionToken){
+				return;
+			}
+			endTransaction(transactionToken, Dataset::abort);
+		}
+		
+		private void endTransaction(long token, Consumer<Dataset> end) {
+			checkArgument(token != NO_TRANSACTION && token == this.transactionToken, 
+					"Transaction %s is not run by this connection.", token);
+			try {
+				if(!isNested){
+					try {
+						end.accept(dataset);
+					} finally {
+						dataset.end();
+						outermostConnection.remove();
+						if(!isDatasetSharedByConnections){
+							dataset.close();
+							dataset = null;
+						}
+					}
+				}
+			} finally {
+				this.endedTransactionToken = token;
+				this.transactionToken = NO_TRANSACTION;
+				this.readWrite = null;
+			}
 		}
 		
 		@Override
 		public Object getWrappedStoreConnection() {
-			return JenaTDBStore.this.dataset;
+			return getWrappedDataset();
+		}
+
+		private Dataset getWrappedDataset() {
+			if(dataset == null){
+				dataset = datasetForConnection.get();
+			}
+			return dataset;
 		}
 	}
 
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.storage.jena;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.apache.jena.query.Dataset;
+
+import de.unima.core.storage.StoreConnection;
+import virtuoso.jdbc4.VirtuosoConnectionPoolDataSource;
+import virtuoso.jena.driver.VirtDataset;
+
+/**
+ * Store backed by a Virtuoso server.
+ * 
+ * <p> The JDBC connections to the server are taken from a bounded pool. Each
+ * {@link StoreConnection} holds one of them from the begin of its outermost transaction
+ * until its end. If all connections are in use, a new transaction waits for a
+ * connection to be returned; at most for the configured timeout.
+ * 
+ * <p> Triples are inserted in batches of the configured size, such that adding a named
+ * model sends one batch per round trip instead of one statement per triple.
+ */
+public class VirtuosoStore extends JenaTDBStore {
+	
+	public static final int DEFAULT_MAXIMUM_CONNECTIONS = 8;
+	public static final int DEFAULT_BATCH_SIZE = 5000;
+	public static final long DEFAULT_CONNECTION_TIMEOUT_IN_SECONDS = 60;
+	
+	private static final String JDBC_URL_PREFIX = "jdbc:virtuoso://";
+	private static final int DEFAULT_PORT = 1111;
+	
+	private final Semaphore availableConnections;
+	private final int maximumConnections;
+	private final int batchSize;
+	
+	private VirtuosoStore(DataSource dataSource, Semaphore availableConnections, Builder builder) {
+		super(() -> openDataset(dataSource, availableConnections, builder.connectionTimeoutInMillis, builder.batchSize));
+		this.availableConnections = availableConnections;
+		this.maximumConnections = builder.maximumConnections;
+		this.batchSize = builder.batchSize;
+	}
+	
+	/**
+	 * @param url JDBC URL of the server; e.g. {@code jdbc:virtuoso://localhost:1111} or just {@code localhost:1111}
+	 * @param username name of the user
+	 * @param password password of the user
+	 * @return builder for a store with {@link #DEFAULT_MAXIMUM_CONNECTIONS} connections and
+	 * a batch size of {@link #DEFAULT_BATCH_SIZE} triples
+	 */
+	public static Builder builder(String url, String username, String password) {
+		return new Builder(url, username, password);
+	}
+	
+	public int getMaximumConnections() {
+		return maximumConnections;
+	}
+	
+	public int getBatchSize() {
+		return batchSize;
+	}
+	
+	/**
+	 * @return number of pooled connections which are currently not used by a transaction
+	 */
+	public int getAvailableConnections() {
+		return availableConnections.availablePermits();
+	}
+	
+	private static Dataset openDataset(DataSource dataSource, Semaphore availableConnections, long timeoutInMillis, int batchSize) {
+		acquire(availableConnections, timeoutInMillis);
+		try {
+			final VirtDataset dataset = new PooledVirtDataset(dataSource, availableConnections);
+			dataset.setBatchSize(batchSize);
+			return dataset;
+		} catch(RuntimeException e) {
+			availableConnections.release();
+			throw e;
+		}
+	}
+	
+	private static void acquire(Semaphore availableConnections, long timeoutInMillis) {
+		try {
+			if(!availableConnections.tryAcquire(timeoutInMillis, TimeUnit.MILLISECONDS)){
+				throw new IllegalStateException(String.format("No connection to Virtuoso became available within %d ms.", timeoutInMillis));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a connection to Virtuoso.", e);
+		}
+	}
+	
+	/**
+	 * Returns its permit to the pool once it is closed.
+	 */
+	private static final class PooledVirtDataset extends VirtDataset {
+		
+		private final Semaphore availableConnections;
+		private final AtomicBoolean isReturned = new AtomicBoolean();
+
+		private PooledVirtDataset(DataSource dataSource, Semaphore availableConnections) {
+			super(dataSource);
+			this.availableConnections = availableConnections;
+		}
+		
+		@Override
+		public void close() {
+			try {
+				super.close();
+			} finally {
+				if(isReturned.compareAndSet(false, true)){
+					availableConnections.release();
+				}
+			}
+		}
+	}
+	
+	public static final class Builder {
+		
+		private final String url;
+		private final String username;
+		private final String password;
+		private int maximumConnections = DEFAULT_MAXIMUM_CONNECTIONS;
+		private int batchSize = DEFAULT_BATCH_SIZE;
+		private long connectionTimeoutInMillis = TimeUnit.SECONDS.toMillis(DEFAULT_CONNECTION_TIMEOUT_IN_SECONDS);
+		
+		private Builder(String url, String username, String password) {
+			this.url = checkNotNull(url);
+			this.username = checkNotNull(username);
+			this.password = checkNotNull(password);
+		}
+		
+		/**
+		 * @param maximumConnections maximum number of JDBC connections which are open at the same time
+		 * @return this builder
+		 */
+		public Builder maximumConnections(int maximumConnections) {
+			checkArgument(maximumConnections > 0, "Maximum number of connections must be positive but was %s.", maximumConnections);
+			this.maximumConnections = maximumConnections;
+			return this;
+		}
+		
+		/**
+		 * @param batchSize number of triples which are inserted per round trip
+		 * @return this builder
+		 */
+		public Builder batchSize(int batchSize) {
+			checkArgument(batchSize > 0, "Batch size must be positive but was %s.", batchSize);
+			this.batchSize = batchSize;
+			return this;
+		}
+		
+		/**
+		 * @param timeout maximum time a transaction waits for a connection of the pool
+		 * @param unit unit of the timeout
+		 * @return this builder
+		 */
+		public Builder connectionTimeout(long timeout, TimeUnit unit) {
+			checkArgument(timeout >= 0, "Timeout must not be negative but was %s.", timeout);
+			this.connectionTimeoutInMillis = unit.toMillis(timeout);
+			return this;
+		}
+		
+		public VirtuosoStore build() {
+			return new VirtuosoStore(createDataSource(), new Semaphore(maximumConnections, true), this);
+		}
+		
+		private DataSource createDataSource() {
+			final String address = url.startsWith(JDBC_URL_PREFIX) ? url.substring(JDBC_URL_PREFIX.length()) : url;
+			final String hostAndPort = address.split("[/;]", 2)[0];
+			final int portSeparator = hostAndPort.lastIndexOf(':');
+			final VirtuosoConnectionPoolDataSource dataSource = new VirtuosoConnectionPoolDataSource();
+			if(portSeparator < 0){
+				dataSource.setServerName(hostAndPort);
+				dataSource.setPortNumber(DEFAULT_PORT);
+			} else {
+				dataSource.setServerName(hostAndPort.substring(0, portSeparator));
+				dataSource.setPortNumber(Integer.parseInt(hostAndPort.substring(portSeparator + 1)));
+			}
+			dataSource.setUser(username);
+			dataSource.setPassword(password);
+			dataSource.setCharset("UTF-8");
+			dataSource.setMinPoolSize(0);
+			dataSource.setInitialPoolSize(0);
+			dataSource.setMaxPoolSize(maximumConnections);
+			return dataSource;
+		}
+	}
+
+}
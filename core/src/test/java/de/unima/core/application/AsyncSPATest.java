@@ -0,0 +1,171 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.application;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.Resources;
+
+import de.unima.core.domain.model.DataBucket;
+import de.unima.core.domain.model.DataPool;
+import de.unima.core.domain.model.Project;
+
+public class AsyncSPATest {
+
+	@Rule
+	public ExpectedException expected = ExpectedException.none();
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private ExecutorService executor;
+	private AsyncSPA spa;
+
+	@Before
+	public void setUp(){
+		this.executor = Executors.newFixedThreadPool(4);
+		this.spa = SPABuilder.local().uniqueMemory().build().async(executor);
+	}
+	
+	@After
+	public void tearDown() throws InterruptedException {
+		executor.shutdown();
+		executor.awaitTermination(1, TimeUnit.MINUTES);
+	}
+	
+	@Test
+	public void whenDataIsImportedAsynchronouslyThenItShouldBeExportable() throws Exception {
+		final DataPool dataPool = spa.getSpa().createDataPool(spa.getSpa().createProject("Project"), "Pool");
+		
+		final File exported = spa.importData(new File(Resources.getResource("MailProcess.xes").toURI()), "XES", "Mail", dataPool)
+				.thenCompose(bucket -> spa.exportData(bucket, "RDF", new File(folder.getRoot(), "mail.rdf")))
+				.get(1, TimeUnit.MINUTES);
+		
+		assertThat(exported.exists(), is(true));
+	}
+	
+	@Test
+	public void whenProjectIsFoundAsynchronouslyThenItShouldContainItsDataPools() throws Exception {
+		final Project project = spa.getSpa().createProject("Project");
+		final DataPool dataPool = spa.getSpa().createDataPool(project, "Pool");
+		
+		final Project found = spa.findProjectById(project.getId()).get(1, TimeUnit.MINUTES).get();
+		
+		assertThat(found.getDataPools(), contains(dataPool));
+	}
+	
+	@Test
+	public void whenImportsAreSubmittedThenOnlyOneShouldBeHandedToTheExecutorAtATime() throws Exception {
+		final Queue<Runnable> handedOver = new ArrayDeque<>();
+		final AsyncSPA manualSpa = spa.getSpa().async(handedOver::add);
+		final Project project = spa.getSpa().createProject("Project");
+		final DataPool dataPool = spa.getSpa().createDataPool(project, "Pool");
+		final File input = new File(Resources.getResource("MailProcess.xes").toURI());
+		
+		final List<CompletableFuture<DataBucket>> imports = IntStream.range(0, 3)
+				.mapToObj(i -> manualSpa.importData(input, "XES", "Bucket " + i, dataPool))
+				.collect(Collectors.toList());
+		final CompletableFuture<Optional<Project>> read = manualSpa.findProjectById(project.getId());
+		
+		assertThat(handedOver.size(), is(2));
+		handedOver.poll().run();
+		assertThat(imports.get(0).isDone(), is(true));
+		assertThat(imports.get(1).isDone(), is(false));
+		while(!handedOver.isEmpty()){
+			handedOver.poll().run();
+		}
+		assertThat(read.isDone(), is(true));
+		assertThat(imports.stream().allMatch(CompletableFuture::isDone), is(true));
+		assertThat(dataPool.getDataBuckets().size(), is(3));
+	}
+	
+	@Test
+	public void whenImportsAreSubmittedToTwoViewsThenOnlyOneShouldBeHandedToAnExecutorAtATime() throws Exception {
+		final Queue<Runnable> handedOver = new ArrayDeque<>();
+		final AsyncSPA firstView = spa.getSpa().async(handedOver::add);
+		final AsyncSPA secondView = spa.getSpa().async(handedOver::add);
+		final DataPool dataPool = spa.getSpa().createDataPool(spa.getSpa().createProject("Project"), "Pool");
+		final File input = new File(Resources.getResource("MailProcess.xes").toURI());
+		
+		final CompletableFuture<DataBucket> first = firstView.importData(input, "XES", "First", dataPool);
+		final CompletableFuture<DataBucket> second = secondView.importData(input, "XES", "Second", dataPool);
+		
+		assertThat(handedOver.size(), is(1));
+		handedOver.poll().run();
+		assertThat(first.isDone(), is(true));
+		assertThat(handedOver.size(), is(1));
+		handedOver.poll().run();
+		assertThat(second.isDone(), is(true));
+		assertThat(dataPool.getDataBuckets().size(), is(2));
+	}
+	
+	@Test
+	public void whenTheExecutorRejectsAQueuedImportThenItsFutureShouldFail() throws Exception {
+		final Queue<Runnable> handedOver = new ArrayDeque<>();
+		final AtomicBoolean isRejecting = new AtomicBoolean();
+		final AsyncSPA manualSpa = spa.getSpa().async(task -> {
+			if(isRejecting.get()) {
+				throw new RejectedExecutionException("shut down");
+			}
+			handedOver.add(task);
+		});
+		final DataPool dataPool = spa.getSpa().createDataPool(spa.getSpa().createProject("Project"), "Pool");
+		final File input = new File(Resources.getResource("MailProcess.xes").toURI());
+		final CompletableFuture<DataBucket> first = manualSpa.importData(input, "XES", "First", dataPool);
+		final CompletableFuture<DataBucket> second = manualSpa.importData(input, "XES", "Second", dataPool);
+		
+		isRejecting.set(true);
+		handedOver.poll().run();
+		
+		assertThat(first.isCompletedExceptionally(), is(false));
+		assertThat(second.isCompletedExceptionally(), is(true));
+		expected.expect(ExecutionException.class);
+		expected.expectCause(instanceOf(RejectedExecutionException.class));
+		second.get();
+	}
+	
+	@Test
+	public void whenFileFormatIsNotSupportedThenTheFutureShouldFailWithAnIllegalArgumentException() throws Exception {
+		expected.expect(ExecutionException.class);
+		expected.expectCause(instanceOf(IllegalArgumentException.class));
+		spa.importSchema(new File(""), "Nope", "na").get(1, TimeUnit.MINUTES);
+	}
+}
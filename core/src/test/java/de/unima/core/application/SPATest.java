@@ -15,14 +15,41 @@
  *******************************************************************************/
 package de.unima.core.application;
 
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.vocabulary.OWL;
+import org.apache.jena.vocabulary.RDFS;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 
+import com.google.common.io.Resources;
+
+import de.unima.core.domain.model.DataBucket;
+import de.unima.core.domain.model.DataPool;
+
 public class SPATest {
 
 	@Rule
@@ -43,4 +70,137 @@ public class SPATest {
 		expected.expect(IllegalArgumentException.class);
 		spa.importSchema(new File(""), "Nope", "na");
 	}
+	
+	@Test
+	public void whenRdfSchemaIsImportedThenItsImportsShouldBeStoredWithIt() throws Exception {
+		final File imported = folder.newFile("imported.ttl");
+		Files.write(imported.toPath(), "<http://www.test.de/imported> <http://www.w3.org/2000/01/rdf-schema#label> \"imported\" .".getBytes(StandardCharsets.UTF_8));
+		final File schema = folder.newFile("schema.ttl");
+		Files.write(schema.toPath(), ("<http://www.test.de/schema> a <http://www.w3.org/2002/07/owl#Ontology> ; "
+				+ "<http://www.w3.org/2002/07/owl#imports> <" + imported.toURI() + "> .").getBytes(StandardCharsets.UTF_8));
+		
+		final File exported = spa.exportSchema(spa.importSchema(schema, "RDF", "Schema"), "RDF", folder.newFile("exported.rdf"));
+		
+		final Model exportedSchema = RDFDataMgr.loadModel(exported.getPath());
+		assertThat(exportedSchema.contains(ResourceFactory.createResource("http://www.test.de/imported"), RDFS.label), is(true));
+		assertThat(exportedSchema.contains(ResourceFactory.createResource("http://www.test.de/schema"), OWL.imports), is(true));
+	}
+	
+	@Test
+	public void whenFileFormatOfAllFilesIsNotSupportedThenAnIllegalArgumentExceptionShouldBeThrown(){
+		final DataPool dataPool = spa.createDataPool(spa.createProject("Project"), "Pool");
+		expected.expect(IllegalArgumentException.class);
+		spa.importAll(Arrays.asList(new File("")), "Nope", dataPool);
+	}
+	
+	@Test
+	public void whenAllFilesAreImportedThenEachFileShouldBeADataBucketOfThePool() throws Exception {
+		final DataPool dataPool = spa.createDataPool(spa.createProject("Project"), "Pool");
+		final List<File> inputs = copiesOfResource("MailProcess.xes", 5);
+		
+		final ImportReport report = spa.importAll(inputs, "XES", dataPool);
+		
+		assertThat(report.hasFailures(), is(false));
+		assertThat(report.getImportedDataBuckets().keySet(), containsInAnyOrder(inputs.toArray()));
+		final DataPool persistedPool = spa.findDataPoolById(dataPool.getId()).get();
+		assertThat(persistedPool.getDataBuckets().size(), is(5));
+		for(DataBucket bucket : report.getImportedDataBuckets().values()){
+			assertThat(persistedPool.getDataBuckets(), hasItem(bucket));
+		}
+	}
+	
+	@Test
+	public void whenAFileCannotBeParsedThenItShouldBeReportedAndTheOtherFilesShouldBeImported() throws Exception {
+		final DataPool dataPool = spa.createDataPool(spa.createProject("Project"), "Pool");
+		final List<File> inputs = new ArrayList<>(copiesOfResource("MailProcess.xes", 2));
+		final File broken = folder.newFile("broken.xes");
+		Files.write(broken.toPath(), "<log".getBytes(StandardCharsets.UTF_8));
+		inputs.add(1, broken);
+		
+		final ImportReport report = spa.importAll(inputs, "XES", dataPool, Runnable::run, 1);
+		
+		assertThat(report.getFailures().keySet(), contains(broken));
+		assertThat(report.getImportedDataBuckets().keySet(), contains(inputs.get(0), inputs.get(2)));
+		assertThat(spa.findDataPoolById(dataPool.getId()).get().getDataBuckets().size(), is(2));
+	}
+	
+	@Test
+	public void whenTheExecutorRejectsAFileThenItShouldBeReportedAndTheOtherFilesShouldBeImported() throws Exception {
+		final DataPool dataPool = spa.createDataPool(spa.createProject("Project"), "Pool");
+		final List<File> inputs = copiesOfResource("MailProcess.xes", 3);
+		final AtomicInteger submitted = new AtomicInteger();
+		
+		final ImportReport report = spa.importAll(inputs, "XES", dataPool, parser -> {
+			if(submitted.incrementAndGet() == 2){
+				throw new RejectedExecutionException("shut down");
+			}
+			parser.run();
+		}, 3);
+		
+		assertThat(report.getFailures().keySet(), contains(inputs.get(1)));
+		assertThat(report.getFailures().get(inputs.get(1)), is(instanceOf(RejectedExecutionException.class)));
+		assertThat(report.getImportedDataBuckets().keySet(), containsInAnyOrder(inputs.get(0), inputs.get(2)));
+		assertThat(spa.findDataPoolById(dataPool.getId()).get().getDataBuckets().size(), is(2));
+	}
+	
+	@Test
+	public void whenDataBucketIsExportedAsSnapshotThenItShouldBeImportableWithTheSameData() throws Exception {
+		final DataPool dataPool = spa.createDataPool(spa.createProject("Project"), "Pool");
+		final DataBucket bucket = spa.importData(new File(Resources.getResource("MailProcess.xes").toURI()), "XES", "Mail", dataPool);
+		
+		final File snapshot = spa.exportData(bucket, "RDF/THRIFT.GZ", folder.newFile());
+		final DataBucket copy = spa.importData(snapshot, "RDF/THRIFT.GZ", "Copy", dataPool);
+		
+		final File original = spa.exportData(bucket, "RDF/NT", folder.newFile());
+		final File copied = spa.exportData(copy, "RDF/NT", folder.newFile());
+		assertThat(Files.readAllLines(copied.toPath()).size(), is(Files.readAllLines(original.toPath()).size()));
+	}
+	
+	@Test
+	public void whenDataBucketIsExportedAsXesOnAPoolThenItShouldEqualTheSequentialExport() throws Exception {
+		final File input = logWithTraces(70);
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			final SPA spaWithPool = SPABuilder.local().uniqueMemory().xesExportPool(pool).build();
+			final DataPool dataPool = spaWithPool.createDataPool(spaWithPool.createProject("Project"), "Pool");
+			final DataBucket bucket = spaWithPool.importData(input, "XES", "Log", dataPool);
+			final DataPool sequentialDataPool = spa.createDataPool(spa.createProject("Project"), "Pool");
+			final DataBucket sequentialBucket = spa.importData(input, "XES", "Log", sequentialDataPool);
+			
+			final String exported = new String(Files.readAllBytes(spaWithPool.exportData(bucket, "XES", folder.newFile("pool.xes")).toPath()), StandardCharsets.UTF_8);
+			final String sequentiallyExported = new String(Files.readAllBytes(spa.exportData(sequentialBucket, "XES", folder.newFile("sequential.xes")).toPath()), StandardCharsets.UTF_8);
+			
+			assertThat(exported.split("<trace>", -1).length - 1, is(70));
+			assertThat(exported, is(sequentiallyExported));
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+	
+	private File logWithTraces(int traces) throws Exception {
+		final StringBuilder log = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" ?> "
+				+ "<log xes.version=\"1.0\" xmlns=\"http://www.xes-standard.org/\">");
+		for(int trace = 0; trace < traces; trace++){
+			log.append("<trace><string key=\"concept:name\" value=\"t" + trace + "\"/>");
+			for(int event = 0; event < 3; event++){
+				log.append("<event><string key=\"concept:name\" value=\"e" + event + "\"/>"
+						+ "<date key=\"time:timestamp\" value=\"2016-01-01T10:0" + event + ":00.000+01:00\"/></event>");
+			}
+			log.append("</trace>");
+		}
+		log.append("</log>");
+		final File file = folder.newFile("log.xes");
+		Files.write(file.toPath(), log.toString().getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+	
+	private List<File> copiesOfResource(String name, int copies) throws Exception {
+		final List<File> files = new ArrayList<>();
+		for(int i = 0; i < copies; i++){
+			final File copy = folder.newFile(i + "-" + name);
+			Files.copy(Paths.get(Resources.getResource(name).toURI()), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			files.add(copy);
+		}
+		return files;
+	}
 }
@@ -15,15 +15,19 @@
  *******************************************************************************/
 package de.unima.core.domain.model;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
+
 public class ProjectTest {
 
 	@Test
@@ -45,4 +49,28 @@ public class ProjectTest {
 		assertThat(pools.get(0), is(dataPool));
 		assertThat(project.getDataPools(),is(empty()));
 	}
+	
+	@Test
+	public void dataPoolsShouldBeLoadedOnFirstAccessOnly(){
+		final Project project = new Project("http://www.test.de");
+		project.addDataPool(new DataPool("test"));
+		final AtomicInteger loads = new AtomicInteger();
+		project.loadDataPoolsOnFirstAccess(() -> {
+			loads.incrementAndGet();
+			return Lists.newArrayList(new DataPool("test", "Loaded pool"));
+		});
+		assertThat(loads.get(), is(0));
+		assertThat(project.findDataPoolById("test").get().getLabel(), is("Loaded pool"));
+		assertThat(project.getDataPools().size(), is(1));
+		assertThat(loads.get(), is(1));
+	}
+	
+	@Test
+	public void whenDataPoolsAreReplacedBeforeFirstAccessTheReplacedPoolsAreTheLoadedOnes(){
+		final Project project = new Project("http://www.test.de");
+		project.loadDataPoolsOnFirstAccess(() -> Lists.newArrayList(new DataPool("loaded")));
+		final List<DataPool> removedPools = project.replaceDataPools(Lists.newArrayList(new DataPool("new")));
+		assertThat(removedPools, contains(new DataPool("loaded")));
+		assertThat(project.getDataPools(), contains(new DataPool("new")));
+	}
 }
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.io.file;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.shared.AddDeniedException;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class BundledOntologiesTest {
+	
+	@Rule
+	public ExpectedException expected = ExpectedException.none();
+
+	@Test
+	public void whenBpmnOntologyIsRequestedTwiceThenBothViewsContainTheSameStatements() {
+		final OntModel first = BundledOntologies.bpmn20();
+		final OntModel second = BundledOntologies.bpmn20();
+		assertThat(first.getOntClass("http://dkm.fbk.eu/index.php/BPMN2_Ontology#process"), is(notNullValue()));
+		assertThat(first.isIsomorphicWith(second), is(true));
+	}
+	
+	@Test
+	public void whenStatementIsAddedToViewThenItIsDenied() {
+		expected.expect(AddDeniedException.class);
+		BundledOntologies.xes().createResource("http://www.test.de/1").addProperty(RDFS.label, "Test");
+	}
+	
+	@Test
+	public void whenSubModelIsAddedToViewThenOtherViewsAreNotAffected() {
+		final OntModel view = BundledOntologies.xesFromXsd();
+		final long sizeBefore = view.size();
+		view.addSubModel(ModelFactory.createDefaultModel().add(RDFS.Class, RDFS.label, "Test"));
+		assertThat(view.size(), is(sizeBefore + 1));
+		assertThat(BundledOntologies.xesFromXsd().size(), is(sizeBefore));
+	}
+}
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.io.file;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RDFExporterTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private Model model;
+	
+	@Before
+	public void setUp(){
+		this.model = ModelFactory.createDefaultModel();
+		this.model.read("running-example.owl", "RDF/XML");
+	}
+	
+	@Test
+	public void whenNoFormatIsGivenThenTheModelShouldBeExportedAsRdfXml() throws IOException {
+		assertThatExportedModelIsIsomorphic(new RDFExporter(), RDFFormat.RDFXML_PLAIN);
+	}
+	
+	@Test
+	public void whenModelIsExportedAsNTriplesThenTheFileShouldContainTheSameModel() throws IOException {
+		assertThatExportedModelIsIsomorphic(new RDFExporter(RDFFormat.NTRIPLES), RDFFormat.NTRIPLES);
+	}
+	
+	@Test
+	public void whenModelIsExportedAsTurtleBlocksThenTheFileShouldContainTheSameModel() throws IOException {
+		assertThatExportedModelIsIsomorphic(new RDFExporter(RDFFormat.TURTLE_BLOCKS), RDFFormat.TURTLE_BLOCKS);
+	}
+	
+	@Test
+	public void whenModelIsExportedAsRdfThriftThenTheFileShouldContainTheSameModel() throws IOException {
+		assertThatExportedModelIsIsomorphic(new RDFExporter(RDFFormat.RDF_THRIFT), RDFFormat.RDF_THRIFT);
+	}
+	
+	@Test
+	public void whenModelIsExportedInANonStreamingFormatThenTheFileShouldContainTheSameModel() throws IOException {
+		assertThatExportedModelIsIsomorphic(new RDFExporter(RDFFormat.TURTLE_PRETTY), RDFFormat.TURTLE_PRETTY);
+	}
+
+	private void assertThatExportedModelIsIsomorphic(RDFExporter exporter, RDFFormat format) throws IOException {
+		final File exported = exporter.exportToFile(model, folder.newFile());
+		final Model reimported = ModelFactory.createDefaultModel();
+		RDFDataMgr.read(reimported, exported.toURI().toString(), format.getLang());
+		assertThat(reimported.isIsomorphicWith(model), is(true));
+	}
+}
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.io.file;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.Resources;
+
+public class RDFImporterTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private final RDFImporter importer = new RDFImporter();
+	private Model model;
+	
+	@Before
+	public void setUp(){
+		this.model = ModelFactory.createDefaultModel();
+		this.model.read("running-example.owl", "RDF/XML");
+	}
+	
+	@Test
+	public void whenFileHasAnUnknownExtensionThenItShouldBeReadAsRdfXml() throws Exception {
+		final Model imported = importer.importData(new File(Resources.getResource("running-example.owl").toURI()));
+		assertThat(imported.isIsomorphicWith(model), is(true));
+	}
+	
+	@Test
+	public void whenFileContainsNTriplesThenAllTriplesShouldBeStreamed() throws IOException {
+		final File input = write("data.nt", Lang.NTRIPLES, false);
+		final Model imported = ModelFactory.createDefaultModel();
+		importer.importData(input, StreamRDFLib.graph(imported.getGraph()));
+		assertThat(imported.isIsomorphicWith(model), is(true));
+	}
+	
+	@Test
+	public void whenFileContainsTurtleThenAllTriplesShouldBeImported() throws IOException {
+		final Model imported = importer.importData(write("data.ttl", Lang.TURTLE, false));
+		assertThat(imported.isIsomorphicWith(model), is(true));
+	}
+	
+	@Test
+	public void whenFileIsCompressedThenItShouldBeDecompressedBeforeParsing() throws IOException {
+		final Model imported = importer.importData(write("data.nt.gz", Lang.NTRIPLES, true));
+		assertThat(imported.isIsomorphicWith(model), is(true));
+	}
+	
+	@Test
+	public void whenSnapshotOfExporterIsImportedThenItShouldContainTheSameTriples() throws IOException {
+		final File snapshot = new RDFExporter(RDFFormat.RDF_THRIFT, true).exportToFile(model, folder.newFile("snapshot"));
+		final File rdfXml = new RDFExporter().exportToFile(model, folder.newFile("data.rdf"));
+		
+		final Model imported = new RDFImporter(Lang.RDFTHRIFT).importData(snapshot);
+		
+		assertThat(imported.isIsomorphicWith(model), is(true));
+		assertThat(snapshot.length() < rdfXml.length(), is(true));
+	}
+	
+	@Test
+	public void whenOntologyIsImportedThenItShouldContainTheTriplesOfTheFile() throws IOException {
+		final OntModel ontology = importer.importOntology(write("data.ttl", Lang.TURTLE, false));
+		assertThat(ontology.getBaseModel().isIsomorphicWith(model), is(true));
+	}
+	
+	private File write(String name, Lang lang, boolean isCompressed) throws IOException {
+		final File file = folder.newFile(name);
+		try(OutputStream out = isCompressed ? new GZIPOutputStream(Files.newOutputStream(file.toPath())) : Files.newOutputStream(file.toPath())){
+			RDFDataMgr.write(out, model, lang);
+		}
+		return file;
+	}
+}
@@ -17,6 +17,8 @@ package de.unima.core.io.file;
 
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.lessThan;
 import static org.junit.Assert.assertThat;
 
 import java.io.File;
@@ -26,6 +28,9 @@ import java.nio.file.StandardOpenOption;
 import java.util.List;
 
 import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionFactory;
+import org.apache.jena.query.ResultSet;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.ResourceFactory;
@@ -34,6 +39,8 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import de.unima.core.io.file.xes.OrderIndexer;
+
 public class XESImporterTest {
 
 	@Rule
@@ -63,6 +70,42 @@ public class XESImporterTest {
 		assertThat(importedObjects, hasItem(ResourceFactory.createPlainLiteral("50")));
 	}
 
+	@Test
+	public void whenXesIsImportedThenTracesAndEventsShouldBeIndexedInDocumentOrder() throws IOException{
+		final File log = folders.newFile("twoTraces.xes");
+		final String logEntry = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?> "
+				+ " <log xes.version=\"1.0\" xmlns=\"http://www.xes-standard.org/\"> "
+				+ " <trace><string key=\"concept:name\" value=\"1\"/>"
+				+ " <event><string key=\"concept:name\" value=\"a\"/></event>"
+				+ " <event><string key=\"concept:name\" value=\"b\"/></event>"
+				+ " </trace>"
+				+ " <trace><string key=\"concept:name\" value=\"2\"/></trace>"
+				+ " </log>";
+		Files.write(log.toPath(), logEntry.getBytes(), StandardOpenOption.APPEND);
+		final Model importedLog = xesImporter.importData(log);
+		final List<Long> indices = importedLog.listObjectsOfProperty(ResourceFactory.createProperty(OrderIndexer.ORDER_INDEX))
+				.mapWith(index -> index.asLiteral().getLong()).toList();
+		assertThat(indices, containsInAnyOrder(0l, 1l, 2l, 3l));
+		assertThat(indexOfNodeNamed(importedLog, "1"), lessThan(indexOfNodeNamed(importedLog, "a")));
+		assertThat(indexOfNodeNamed(importedLog, "a"), lessThan(indexOfNodeNamed(importedLog, "b")));
+		assertThat(indexOfNodeNamed(importedLog, "b"), lessThan(indexOfNodeNamed(importedLog, "2")));
+	}
+	
+	private static long indexOfNodeNamed(Model model, String name) {
+		final String query = "SELECT ?index WHERE { "
+				+ " ?node ?attribute ?nameAttribute . "
+				+ " ?nameAttribute <http://www.xes-standard.org/#key> ?key ; <http://www.xes-standard.org/#value> ?name . "
+				+ " ?node <" + OrderIndexer.ORDER_INDEX + "> ?index . "
+				+ " FILTER(str(?key) = \"concept:name\" && str(?name) = \"" + name + "\") "
+				+ "}";
+		try(QueryExecution execution = QueryExecutionFactory.create(query, model)) {
+			final ResultSet results = execution.execSelect();
+			final long index = results.next().getLiteral("index").getLong();
+			assertThat(results.hasNext(), is(false));
+			return index;
+		}
+	}
+
 	private void appendOneEvent(File oneLogEntry) throws IOException {
 		final String logEntry = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?> "
 				+ " <log xes.version=\"1.0\" xmlns=\"http://www.xes-standard.org/\"> "
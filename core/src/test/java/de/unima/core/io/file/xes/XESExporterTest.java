@@ -1,37 +1,80 @@
 package de.unima.core.io.file.xes;
 
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.Assert.assertThat;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.xml.parsers.DocumentBuilderFactory;
+
 import org.apache.jena.ontology.OntModel;
+import org.apache.jena.query.QuerySolution;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.vocabulary.RDF;
 import org.deckfour.xes.extension.XExtension;
+import org.deckfour.xes.factory.XFactoryNaiveImpl;
 import org.deckfour.xes.info.XGlobalAttributeNameMap;
 import org.deckfour.xes.model.XAttribute;
 import org.deckfour.xes.model.XAttributeMap;
 import org.deckfour.xes.model.XEvent;
 import org.deckfour.xes.model.XLog;
+import org.deckfour.xes.model.XTrace;
+import org.junit.AfterClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 import com.google.common.io.Resources;
 
+import de.unima.core.io.file.XESExporter;
+import de.unima.core.io.file.XESImporter;
+
 public class XESExporterTest {
 	
+	private static ForkJoinPool pool = new ForkJoinPool(4);
 	private static OntModelToXLogExporter exporter = new OntModelToXLogExporter();
+	private static OntModelToXLogExporter parallelExporter = new OntModelToXLogExporter(pool);
+	
+	private static final int ORDERED_TRACES = 70;
+	private static final int ORDERED_EVENTS = 20;
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	@AfterClass
+	public static void shutdownPool() {
+		pool.shutdown();
+	}
 	
 	@Test
 	public void whenOneEmptyLogIsAvailbleThenOneLogIsExported() {
@@ -80,6 +123,205 @@ public class XESExporterTest {
 		assertThat(attribues.get("Resource").toString(), equalTo("Pete"));
 	}
 	
+	@Test
+	public void whenMultipleTracesAreAvailableThenEachTraceContainsOnlyItsOwnEvents() {
+		Set<XLog> logs = exportOntModelFromFileToXESLogs("log-with-two-traces.owl");
+		XLog log = logs.stream().findFirst().get();
+		assertThat(log.size(), is(2));
+		Set<Integer> numberOfEventsPerTrace = log.stream().map(trace -> trace.size()).collect(Collectors.toSet());
+		assertThat(numberOfEventsPerTrace, hasItems(1, 2));
+	}
+
+	@Test
+	public void whenExportedInParallelThenTracesAndEventsAreTheSameAndInTheSameOrder() {
+		for(String fileName: new String[]{"log-with-trace-with-event.owl", "log-with-two-traces.owl"}) {
+			Model model = loadModelFromFile(fileName);
+			XLog sequential = exporter.export(model).iterator().next();
+			XLog parallel = parallelExporter.export(model).iterator().next();
+			assertThat(describe(parallel), equalTo(describe(sequential)));
+		}
+	}
+	
+	@Test
+	public void whenExportedTraceByTraceThenTheSinkReceivesTheSameTraces() {
+		Model model = loadModelFromFile("log-with-two-traces.owl");
+		XLog log = exporter.export(model).iterator().next();
+		List<XLog> streamedLogs = new ArrayList<>();
+		exporter.export(model, new XLogSink() {
+			@Override
+			public void startLog(XLog log) {
+				assertThat(log.isEmpty(), is(true));
+				streamedLogs.add(log);
+			}
+			
+			@Override
+			public void addTrace(XTrace trace) {
+				streamedLogs.get(streamedLogs.size() - 1).add(trace);
+			}
+			
+			@Override
+			public void endLog() {}
+		});
+		assertThat(streamedLogs.size(), is(1));
+		assertThat(describe(streamedLogs.get(0)), containsInAnyOrder(describe(log).toArray()));
+	}
+	
+	@Test
+	public void whenExportedToFileThenTracesAndEventsAreWrittenAsXesXml() throws Exception {
+		File file = new XESExporter().exportToFile(loadModelFromFile("log-with-trace-with-event.owl"), folder.newFile("log.xes"));
+		Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+		assertThat(document.getDocumentElement().getTagName(), equalTo("log"));
+		assertThat(document.getElementsByTagName("trace").getLength(), is(1));
+		Element event = (Element)document.getElementsByTagName("event").item(0);
+		List<String> attributes = new ArrayList<>();
+		for(int i = 0; i < event.getChildNodes().getLength(); i++) {
+			if(event.getChildNodes().item(i) instanceof Element) {
+				Element attribute = (Element)event.getChildNodes().item(i);
+				attributes.add(attribute.getAttribute("key") + "=" + attribute.getAttribute("value"));
+			}
+		}
+		assertThat(attributes, hasItems("Costs=50", "Resource=Pete"));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void whenMultipleLogsAreExportedToOneFileThenExportFails() throws IOException {
+		Model model = loadModelFromFile("log-with-trace.owl");
+		model.add(loadModelFromFile("log-with-two-traces.owl"));
+		new XESExporter().exportToFile(model, folder.newFile("log.xes"));
+	}
+	
+	@Test
+	public void whenExportedInDocumentOrderThenTracesAndEventsAreInTheOrderOfTheImportedFile() throws IOException {
+		Model model = importLogWithEventsInReverseTimestampOrder();
+		XLog log = exporter.export(model).iterator().next();
+		assertThat(namesOf(log), equalTo(expectedNames(false)));
+		List<XLog> streamedLogs = new ArrayList<>();
+		exporter.export(model, new XLogSink() {
+			@Override
+			public void startLog(XLog log) {
+				streamedLogs.add(log);
+			}
+			
+			@Override
+			public void addTrace(XTrace trace) {
+				streamedLogs.get(0).add(trace);
+			}
+			
+			@Override
+			public void endLog() {}
+		});
+		assertThat(namesOf(streamedLogs.get(0)), equalTo(expectedNames(false)));
+	}
+	
+	@Test
+	public void whenExportedInParallelTraceByTraceThenTheSinkReceivesTheTracesInDocumentOrder() throws IOException {
+		Model model = importLogWithEventsInReverseTimestampOrder();
+		List<XTrace> traces = new ArrayList<>();
+		parallelExporter.export(model, new XLogSink() {
+			@Override
+			public void startLog(XLog log) {}
+			
+			@Override
+			public void addTrace(XTrace trace) {
+				traces.add(trace);
+			}
+			
+			@Override
+			public void endLog() {}
+		});
+		XLog log = new XFactoryNaiveImpl().createLog();
+		log.addAll(traces);
+		assertThat(namesOf(log), equalTo(expectedNames(false)));
+		assertThat(describe(log), equalTo(describe(exporter.export(model).iterator().next())));
+	}
+	
+	@Test
+	public void whenTracesAreStreamedThenEachQueryOnlyHoldsTheSolutionsOfOneChunk() throws IOException {
+		Model model = importLogWithEventsInReverseTimestampOrder();
+		RDFNode logNode = model.listSubjectsWithProperty(RDF.type, model.createResource("http://www.xes-standard.org/#log")).next();
+		List<Integer> solutionsPerQuery = new ArrayList<>();
+		List<XTrace> traces = new ArrayList<>();
+		for(List<RDFNode> traceNodes: Lists.partition(new TraceNodesRetriever(logNode, model).retrieve(), LogsRetriever.TRACES_PER_CHUNK)) {
+			AtomicInteger solutions = new AtomicInteger();
+			new StreamingTracesRetriever(logNode, traceNodes, traces::add, EventOrder.DOCUMENT, model) {
+				@Override
+				protected void forEachSolution(Op query, Consumer<QuerySolution> action) {
+					super.forEachSolution(query, solution -> {
+						solutions.incrementAndGet();
+						action.accept(solution);
+					});
+				}
+			}.retrieve();
+			solutionsPerQuery.add(solutions.get());
+		}
+		// one solution per trace attribute and two per event (name and timestamp)
+		int solutionsPerTrace = 1 + 2 * ORDERED_EVENTS;
+		assertThat(traces.size(), is(ORDERED_TRACES));
+		assertThat(solutionsPerQuery, everyItem(lessThanOrEqualTo(LogsRetriever.TRACES_PER_CHUNK * solutionsPerTrace)));
+		assertThat(solutionsPerQuery.stream().mapToInt(Integer::intValue).sum(), is(ORDERED_TRACES * solutionsPerTrace));
+	}
+	
+	@Test
+	public void whenExportedInTimestampOrderThenEventsAreSortedByTimestamp() throws IOException {
+		Model model = importLogWithEventsInReverseTimestampOrder();
+		XLog log = new OntModelToXLogExporter(EventOrder.TIMESTAMP).export(model).iterator().next();
+		assertThat(namesOf(log), equalTo(expectedNames(true)));
+		XLog parallelLog = new OntModelToXLogExporter(EventOrder.TIMESTAMP, pool).export(model).iterator().next();
+		assertThat(namesOf(parallelLog), equalTo(expectedNames(true)));
+	}
+	
+	private Model importLogWithEventsInReverseTimestampOrder() throws IOException {
+		File file = folder.newFile("unordered.xes");
+		StringBuilder log = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" ?> "
+				+ " <log xes.version=\"1.0\" xmlns=\"http://www.xes-standard.org/\"> ");
+		for(int trace = 0; trace < ORDERED_TRACES; trace++) {
+			log.append(" <trace><string key=\"concept:name\" value=\"t" + trace + "\"/>");
+			for(int event = 0; event < ORDERED_EVENTS; event++) {
+				log.append(event("e" + event, String.format("2016-01-01T10:%02d:00.000+01:00", ORDERED_EVENTS - event)));
+			}
+			log.append(" </trace>");
+		}
+		log.append(" </log>");
+		Files.write(file.toPath(), log.toString().getBytes(StandardCharsets.UTF_8));
+		return new XESImporter().importData(file);
+	}
+	
+	private static List<String> expectedNames(boolean isSortedByTimestamp) {
+		List<String> eventNames = new ArrayList<>();
+		for(int event = 0; event < ORDERED_EVENTS; event++) {
+			eventNames.add("e" + event);
+		}
+		if(isSortedByTimestamp) {
+			Collections.reverse(eventNames);
+		}
+		List<String> names = new ArrayList<>();
+		for(int trace = 0; trace < ORDERED_TRACES; trace++) {
+			names.add("t" + trace + ":" + String.join(",", eventNames));
+		}
+		return names;
+	}
+	
+	private static String event(String name, String timestamp) {
+		return " <event><string key=\"concept:name\" value=\"" + name + "\"/>"
+				+ "<date key=\"time:timestamp\" value=\"" + timestamp + "\"/></event>";
+	}
+	
+	private static List<String> namesOf(XLog log) {
+		return log.stream()
+				.map(trace -> trace.getAttributes().get("concept:name") + ":" + trace.stream()
+						.map(event -> event.getAttributes().get("concept:name").toString())
+						.collect(Collectors.joining(",")))
+				.collect(Collectors.toList());
+	}
+	
+	private static List<String> describe(XLog log) {
+		return log.stream()
+				.map(trace -> new TreeMap<>(trace.getAttributes()).toString() + trace.stream()
+						.map(event -> new TreeMap<>(event.getAttributes()).toString())
+						.collect(Collectors.toList()))
+				.collect(Collectors.toList());
+	}
+	
 	private Set<XLog> exportOntModelFromFileToXESLogs(String ontModelFileName) {
 		Model model = loadModelFromFile(ontModelFileName);
 		return exporter.export(model);
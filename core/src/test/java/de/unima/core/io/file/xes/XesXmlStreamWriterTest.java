@@ -0,0 +1,118 @@
+package de.unima.core.io.file.xes;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.deckfour.xes.factory.XFactory;
+import org.deckfour.xes.factory.XFactoryNaiveImpl;
+import org.deckfour.xes.in.XesXmlParser;
+import org.deckfour.xes.model.XAttributable;
+import org.deckfour.xes.model.XAttribute;
+import org.deckfour.xes.model.XAttributeCollection;
+import org.deckfour.xes.model.XAttributeList;
+import org.deckfour.xes.model.XAttributeLiteral;
+import org.deckfour.xes.model.XAttributeTimestamp;
+import org.deckfour.xes.model.XEvent;
+import org.deckfour.xes.model.XLog;
+import org.deckfour.xes.model.XTrace;
+import org.junit.Test;
+
+public class XesXmlStreamWriterTest {
+
+	private static final XFactory factory = new XFactoryNaiveImpl();
+
+	@Test
+	public void whenAWrittenLogIsParsedThenItEqualsTheWrittenLog() throws Exception {
+		XLog log = createLog();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try(XesXmlStreamWriter writer = new XesXmlStreamWriter(out)) {
+			writer.startLog(log);
+			for(XTrace trace: log) {
+				writer.addTrace(trace);
+			}
+			writer.endLog();
+		}
+		List<XLog> parsedLogs = new XesXmlParser(factory).parse(new ByteArrayInputStream(out.toByteArray()));
+		assertThat(parsedLogs.size(), is(1));
+		assertThat(describe(parsedLogs.get(0)), equalTo(describe(log)));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void whenASecondLogIsStartedThenWritingFails() throws IOException {
+		try(XesXmlStreamWriter writer = new XesXmlStreamWriter(new ByteArrayOutputStream())) {
+			writer.startLog(factory.createLog());
+			writer.endLog();
+			writer.startLog(factory.createLog());
+		}
+	}
+
+	private static XLog createLog() {
+		XLog log = factory.createLog();
+		put(log, factory.createAttributeLiteral("concept:name", "log", null));
+		XTrace trace = factory.createTrace();
+		put(trace, factory.createAttributeLiteral("concept:name", "t1", null));
+
+		XEvent event = factory.createEvent();
+		put(event, factory.createAttributeLiteral("concept:name", "a", null));
+		put(event, factory.createAttributeTimestamp("time:timestamp", new Date(1451638800123L), null));
+		XAttributeLiteral resource = factory.createAttributeLiteral("org:resource", "Pete", null);
+		put(resource, factory.createAttributeDiscrete("level", 2, null));
+		put(resource, factory.createAttributeBoolean("external", true, null));
+		put(event, resource);
+		trace.add(event);
+
+		event = factory.createEvent();
+		put(event, factory.createAttributeLiteral("concept:name", "b", null));
+		put(event, factory.createAttributeContinuous("Costs", 12.5, null));
+		XAttributeList tags = factory.createAttributeList("tags", null);
+		tags.addToCollection(factory.createAttributeLiteral("first", "urgent", null));
+		tags.addToCollection(factory.createAttributeTimestamp("second", new Date(1451642400000L), null));
+		put(event, tags);
+		trace.add(event);
+
+		log.add(trace);
+		return log;
+	}
+
+	private static void put(XAttributable attributable, XAttribute attribute) {
+		attributable.getAttributes().put(attribute.getKey(), attribute);
+	}
+
+	private static List<String> describe(XLog log) {
+		List<String> description = log.stream()
+				.map(trace -> describe(trace.getAttributes().values()) + trace.stream()
+						.map(event -> describe(event.getAttributes().values()))
+						.collect(Collectors.toList()))
+				.collect(Collectors.toList());
+		description.add(0, describe(log.getAttributes().values()));
+		return description;
+	}
+
+	private static String describe(Collection<XAttribute> attributes) {
+		return attributes.stream()
+				.map(XesXmlStreamWriterTest::describe)
+				.sorted()
+				.collect(Collectors.joining(", ", "{", "}"));
+	}
+
+	private static String describe(XAttribute attribute) {
+		if(attribute instanceof XAttributeCollection) {
+			return attribute.getKey() + "=" + ((XAttributeCollection) attribute).getCollection().stream()
+					.map(XesXmlStreamWriterTest::describe)
+					.collect(Collectors.toList());
+		}
+		String value = attribute instanceof XAttributeTimestamp
+				? String.valueOf(((XAttributeTimestamp) attribute).getValue().getTime())
+				: attribute.toString();
+		return attribute.getKey() + "=" + value + describe(attribute.getAttributes().values());
+	}
+}
@@ -278,6 +278,55 @@ public class AbstractEntityRepositoryTest {
 		assertThat(found,is(empty()));
 	}
 	
+	@Test
+	public void whenAPageOfEntitiesIsRequestedOnlyEntitiesOfThePageAreReturnedOrderedById(){
+		simpleHouseRepository.saveAll(create5Houses());
+		final List<String> ids = simpleHouseRepository.findAll(1, 3).stream().map(House::getId).collect(Collectors.toList());
+		assertThat(ids, is(Lists.newArrayList("http://www.test.de/House/1", "http://www.test.de/House/2", "http://www.test.de/House/3")));
+	}
+	
+	@Test
+	public void whenAPageBeyondTheLastEntityIsRequestedNoEntitiesShouldBeFound(){
+		simpleHouseRepository.saveAll(create5Houses());
+		assertThat(simpleHouseRepository.findAll(5, 10), is(empty()));
+	}
+	
+	@Test
+	public void whenAllEntitiesAreStreamedTheQueryReceivesEachEntity(){
+		final List<House> houses = create5Houses();
+		simpleHouseRepository.saveAll(houses);
+		final List<House> streamedHouses = simpleHouseRepository.streamAll(stream -> stream.collect(Collectors.toList()));
+		assertThat(streamedHouses, is(houses));
+	}
+	
+	@Test
+	public void whenTheStoreCannotBeReadThenStreamingAllEntitiesShouldFail(){
+		final AbstractEntityRepository<House, String> repository = new AbstractEntityRepository<House, String>(Store.noOp()){
+			@Override
+			protected Class<House> getEntityType() {
+				return House.class;
+			}
+
+			@Override
+			protected String getRdfClass() {
+				return "http://www.test.de/House";
+			}
+		};
+		expected.expect(IllegalStateException.class);
+		repository.streamAll(stream -> stream.count());
+	}
+	
+	@Test
+	public void graphsWhichAreNotGraphsOfEntitiesShouldNotBeFound(){
+		simpleHouseRepository.saveAll(create5Houses());
+		simpleHouseRepository.getStore().writeWithConnection(connection -> connection.as(Dataset.class).map(dataset -> {
+			final Model data = dataset.getNamedModel("http://www.test.de/House/data/graph");
+			data.add(ResourceFactory.createResource("http://www.test.de/House/other"), RDF.type, ResourceFactory.createResource("http://www.test.de/House"));
+			return data.size();
+		}));
+		assertThat(simpleHouseRepository.findAll().size(), is(5));
+	}
+	
 	private static class HouseRepository extends AbstractEntityRepository<House, String>{
 		
 		public HouseRepository(Store store) {
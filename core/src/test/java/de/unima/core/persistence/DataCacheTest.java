@@ -0,0 +1,109 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.persistence;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.shared.AddDeniedException;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import de.unima.core.domain.model.DataBucket;
+import de.unima.core.storage.jena.JenaTDBStore;
+
+public class DataCacheTest {
+	
+	@Rule
+	public ExpectedException expected = ExpectedException.none();
+	
+	private final DataBucket bucket = new DataBucket("http://www.uni-mannheim.de/spa/DataBucket/1");
+
+	private DataCache cache;
+	private DataBucketRepository repository;
+
+	@Before
+	public void setUp(){
+		this.cache = DataCache.withMaximumTriples(3);
+		this.repository = new DataBucketRepository(JenaTDBStore.withUniqueMemoryLocation(), EntityCache.disabled(), cache);
+		repository.save(bucket);
+		repository.addDataToEntity(bucket, createModelWithStatements(2));
+	}
+	
+	@Test
+	public void whenDataIsFoundTwiceTheCachedCopyShouldBeReturned(){
+		final Model first = repository.findDataOfEntity(bucket).get();
+		final Model second = repository.findDataOfEntity(bucket).get();
+		assertThat(second, is(sameInstance(first)));
+		assertThat(second.size(), is(2l));
+		assertThat(cache.stats().hitCount(), is(1l));
+	}
+	
+	@Test
+	public void cachedDataShouldBeReadOnly(){
+		final Model data = repository.findDataOfEntity(bucket).get();
+		expected.expect(AddDeniedException.class);
+		data.add(createModelWithStatements(1));
+	}
+	
+	@Test
+	public void whenDataIsAddedTheCachedDataShouldBeInvalidated(){
+		repository.findDataOfEntity(bucket);
+		repository.addDataToEntity(bucket, target -> target.triple(createModelWithStatements(1).listStatements().next().asTriple()));
+		assertThat(repository.findDataOfEntity(bucket).get().size(), is(1l));
+	}
+	
+	@Test
+	public void whenTheEntityIsDeletedItsDataShouldNotBeFoundAnymore(){
+		repository.findDataOfEntity(bucket);
+		repository.delete(bucket);
+		assertThat(repository.findDataOfEntity(bucket).isPresent(), is(false));
+	}
+	
+	@Test
+	public void dataWithMoreTriplesThanTheCacheCanHoldShouldNotBeCached(){
+		repository.addDataToEntity(bucket, createModelWithStatements(4));
+		repository.findDataOfEntity(bucket);
+		assertThat(cache.size(), is(0l));
+	}
+	
+	@Test
+	public void dataWithOneTripleLessThanTheCacheCanHoldShouldBeCached(){
+		final DataCache largeCache = DataCache.withMaximumTriples(100);
+		final DataBucketRepository largeRepository = new DataBucketRepository(JenaTDBStore.withUniqueMemoryLocation(), EntityCache.disabled(), largeCache);
+		largeRepository.save(bucket);
+		largeRepository.addDataToEntity(bucket, createModelWithStatements(99));
+		final Model first = largeRepository.findDataOfEntity(bucket).get();
+		final Model second = largeRepository.findDataOfEntity(bucket).get();
+		assertThat(second, is(sameInstance(first)));
+		assertThat(largeCache.size(), is(1l));
+	}
+	
+	private static Model createModelWithStatements(int numberOfStatements) {
+		final Model model = ModelFactory.createDefaultModel();
+		for(int i = 0; i < numberOfStatements; i++){
+			model.add(ResourceFactory.createResource("http://www.test.de/" + i), RDFS.label, "Label " + i);
+		}
+		return model;
+	}
+}
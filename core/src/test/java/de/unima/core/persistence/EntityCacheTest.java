@@ -0,0 +1,105 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.persistence;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.jena.query.Dataset;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import de.unima.core.domain.model.Schema;
+import de.unima.core.storage.jena.JenaTDBStore;
+
+public class EntityCacheTest {
+	
+	private static final String ID = "http://www.uni-mannheim.de/spa/Schema/1";
+
+	private EntityCache cache;
+	private SchemaRepository repository;
+
+	@Before
+	public void setUp(){
+		this.cache = EntityCache.withMaximumSizeAndTimeToLive(10, 1, TimeUnit.HOURS);
+		this.repository = new SchemaRepository(JenaTDBStore.withUniqueMemoryLocation(), cache);
+		repository.save(new Schema(ID, "Schema"));
+	}
+	
+	@Test
+	public void whenAnEntityIsFoundTwiceTheSecondLookupShouldBeACacheHit(){
+		repository.findById(ID);
+		repository.findById(ID);
+		assertThat(cache.stats().missCount(), is(1l));
+		assertThat(cache.stats().hitCount(), is(1l));
+	}
+	
+	@Test
+	public void eachLookupShouldReturnANewInstance(){
+		final Schema first = repository.findById(ID).get();
+		final Schema second = repository.findById(ID).get();
+		assertThat(second, is(first));
+		assertThat(second, is(not(sameInstance(first))));
+	}
+	
+	@Test
+	public void whenAnEntityIsSavedItsSnapshotShouldBeInvalidated(){
+		repository.findById(ID);
+		repository.save(new Schema(ID, "Renamed"));
+		assertThat(repository.findById(ID).get().getLabel(), is("Renamed"));
+	}
+	
+	@Test
+	public void whenAnEntityIsDeletedItShouldNotBeFoundAnymore(){
+		repository.findById(ID);
+		repository.delete(new Schema(ID));
+		assertThat(repository.findById(ID).isPresent(), is(false));
+	}
+	
+	@Test
+	public void whenAnEntityIsSavedInAUnitOfWorkItsSnapshotShouldBeInvalidated(){
+		final PersistenceService service = new PersistenceService(repository.getStore(), cache);
+		service.findSchemaById(ID);
+		service.createUnitOfWork().save(new Schema(ID, "Renamed")).commit();
+		assertThat(service.findSchemaById(ID).get().getLabel(), is("Renamed"));
+	}
+	
+	@Test
+	public void entitiesWhichAreFoundTogetherShouldBeCachedToo(){
+		repository.save(new Schema("http://www.uni-mannheim.de/spa/Schema/2"));
+		repository.findAllById(Lists.newArrayList(ID, "http://www.uni-mannheim.de/spa/Schema/2"));
+		assertThat(cache.size(), is(2l));
+		repository.findAllById(Lists.newArrayList(ID, "http://www.uni-mannheim.de/spa/Schema/2"));
+		assertThat(cache.stats().hitCount(), is(2l));
+	}
+	
+	@Test
+	public void whenTheCacheIsDisabledAWriteToTheStoreShouldBeVisibleOnTheNextLookup(){
+		final SchemaRepository uncachedRepository = new SchemaRepository(repository.getStore());
+		assertThat(uncachedRepository.findById(ID).isPresent(), is(true));
+		repository.getStore().writeWithConnection(connection -> connection.as(Dataset.class).map(dataset -> {
+			dataset.removeNamedModel(ID + "/graph");
+			return true;
+		}));
+		assertThat(uncachedRepository.findById(ID).isPresent(), is(false));
+	}
+}
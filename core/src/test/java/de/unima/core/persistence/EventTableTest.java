@@ -0,0 +1,173 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.persistence;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.io.Resources;
+
+import de.unima.core.domain.model.DataBucket;
+import de.unima.core.domain.model.DataPool;
+import de.unima.core.io.file.XESImporter;
+
+public class EventTableTest {
+	
+	private EventTables eventTables;
+	private PersistenceService service;
+	private DataPool dataPool;
+	private File log;
+	
+	@Before
+	public void setUp() throws Exception {
+		this.eventTables = EventTables.inMemory();
+		this.service = PersistenceServiceFactory.withDataInUniqueMemory().withEventTables(eventTables);
+		this.dataPool = service.createPeristentDataPoolForProjectWithGeneratedId(service.createPersistentProjectWithGeneratedId("Project"), "Pool");
+		this.log = new File(Resources.getResource("running-example.xes").toURI());
+	}
+	
+	@Test
+	public void whenXesDataIsAddedThenItsEventTableShouldBeMaterialized() {
+		final DataBucket bucket = service.addDataAsNewDataBucketToDataPool(dataPool, "Log", target -> new XESImporter().importData(log, target));
+		
+		assertThat(eventTables.size(), is(1l));
+		final EventTable table = service.findEventTableOfDataBucket(bucket).get();
+		assertThat(table.size(), is(9));
+		assertThat(table.numberOfCases(), is(1));
+		assertThat(table.getCaseName(0), is("3"));
+		assertThat(table.numberOfActivities(), is(7));
+		assertThat(table.getActivity(table.getActivityId(0)), is("register request"));
+		assertThat(table.getActivity(table.getActivityId(8)), is("pay compensation"));
+		assertThat(table.getResource(table.getResourceId(0)), is("Pete"));
+		assertThat(table.getTimestamp(0), is(ZonedDateTime.parse("2010-12-30T14:32:00.000+01:00").toInstant().toEpochMilli()));
+	}
+	
+	@Test
+	public void eventsOfACaseShouldBeOrderedByTheirTimestamp() {
+		final DataBucket bucket = service.addDataAsNewDataBucketToDataPool(dataPool, "Log", target -> new XESImporter().importData(log, target));
+		
+		final EventTable table = service.findEventTableOfDataBucket(bucket).get();
+		final List<Long> timestamps = table.eventsOfCase(0).mapToObj(table::getTimestamp).collect(Collectors.toList());
+		assertThat(timestamps, is(timestamps.stream().sorted().collect(Collectors.toList())));
+		assertThat(table.eventsOfCase(0).map(table::getCaseId).distinct().boxed().collect(Collectors.toList()), contains(0));
+		final int checkTicket = table.findActivityId("check ticket");
+		assertThat(table.eventsOfCase(0).filter(event -> table.getActivityId(event) == checkTicket).count(), is(2l));
+	}
+	
+	@Test
+	public void whenAnActivityIsUnknownThenItsIdShouldBeNone() {
+		final DataBucket bucket = service.addDataAsNewDataBucketToDataPool(dataPool, "Log", target -> new XESImporter().importData(log, target));
+		
+		final EventTable table = service.findEventTableOfDataBucket(bucket).get();
+		assertThat(table.findActivityId("unknown activity"), is(EventTable.NONE));
+		assertThat(table.findActivityId("register request"), is(table.getActivityId(0)));
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void whenAnEventIsOutOfRangeThenItsActivityShouldNotBeAccessible() {
+		final DataBucket bucket = service.addDataAsNewDataBucketToDataPool(dataPool, "Log", target -> new XESImporter().importData(log, target));
+		
+		final EventTable table = service.findEventTableOfDataBucket(bucket).get();
+		table.getActivityId(table.size());
+	}
+	
+	@Test
+	public void whenTheBucketIsInvalidatedWhileItsTableIsBuiltThenTheTableShouldNotBeMaterialized() {
+		final long generation = eventTables.generation();
+		eventTables.invalidate("bucket");
+		eventTables.put("bucket", EventTable.empty(), generation);
+		
+		assertThat(eventTables.find("bucket").isPresent(), is(false));
+		eventTables.put("bucket", EventTable.empty(), eventTables.generation());
+		assertThat(eventTables.find("bucket").isPresent(), is(true));
+	}
+	
+	@Test
+	public void whenTableIsNotMaterializedThenItShouldBeBuiltFromTheStoredData() {
+		final PersistenceService serviceWithoutTables = PersistenceServiceFactory.withDataInUniqueMemory();
+		final DataPool pool = serviceWithoutTables.createPeristentDataPoolForProjectWithGeneratedId(serviceWithoutTables.createPersistentProjectWithGeneratedId("Project"), "Pool");
+		final DataBucket bucket = serviceWithoutTables.addDataAsNewDataBucketToDataPool(pool, "Log", new XESImporter().importData(log));
+		
+		assertThat(serviceWithoutTables.findEventTableOfDataBucket(bucket).isPresent(), is(false));
+		assertThat(serviceWithoutTables.withEventTables(eventTables).findEventTableOfDataBucket(bucket).get().size(), is(9));
+		assertThat(eventTables.size(), is(1l));
+	}
+	
+	@Test
+	public void whenDataBucketIsRemovedThenItsTableShouldBeInvalidated() {
+		final DataBucket bucket = service.addDataAsNewDataBucketToDataPool(dataPool, "Log", target -> new XESImporter().importData(log, target));
+		
+		service.removeDataBucketFromDataPool(dataPool, bucket);
+		
+		assertThat(eventTables.size(), is(0l));
+		assertThat(service.findEventTableOfDataBucket(bucket).isPresent(), is(false));
+	}
+	
+	@Test
+	public void whenTheValueOfAnAttributeIsStreamedBeforeItsKeyAndOwnerThenItShouldBeInTheTable() {
+		final EventTable.Builder builder = new EventTable.Builder();
+		final Node trace = NodeFactory.createURI("http://www.test.de/trace");
+		final Node event = NodeFactory.createURI("http://www.test.de/event");
+		final Node name = NodeFactory.createURI("http://www.test.de/name");
+		final Node costs = NodeFactory.createURI("http://www.test.de/costs");
+		final Node timestamp = NodeFactory.createURI("http://www.test.de/timestamp");
+		builder.triple(xesTriple(trace, "event", event));
+		builder.triple(xesTriple(event, "string", name));
+		builder.triple(xesTriple(name, "key", NodeFactory.createLiteral("concept:name")));
+		builder.triple(xesTriple(name, "value", NodeFactory.createLiteral("register request")));
+		builder.triple(xesTriple(costs, "value", NodeFactory.createLiteral("concept:name")));
+		builder.triple(xesTriple(costs, "key", NodeFactory.createLiteral("costs")));
+		builder.triple(xesTriple(event, "string", costs));
+		builder.triple(xesTriple(timestamp, "value", NodeFactory.createLiteral("2010-12-30T14:32:00.000+01:00")));
+		builder.triple(xesTriple(timestamp, "key", NodeFactory.createLiteral("time:timestamp")));
+		builder.triple(xesTriple(event, "date", timestamp));
+		
+		final EventTable table = builder.build();
+		assertThat(table.size(), is(1));
+		assertThat(table.getActivity(table.getActivityId(0)), is("register request"));
+		assertThat(table.getResourceId(0), is(EventTable.NONE));
+		assertThat(table.getTimestamp(0), is(ZonedDateTime.parse("2010-12-30T14:32:00.000+01:00").toInstant().toEpochMilli()));
+	}
+	
+	@Test
+	public void whenDataContainsNoEventsThenTheTableShouldBeEmpty() {
+		final Model data = ModelFactory.createDefaultModel();
+		data.add(ResourceFactory.createResource("http://www.test.de/1"), RDFS.label, "1");
+		final DataBucket bucket = service.addDataAsNewDataBucketToDataPool(dataPool, "No log", data);
+		
+		assertThat(service.findEventTableOfDataBucket(bucket).get().isEmpty(), is(true));
+	}
+	
+	private static Triple xesTriple(Node subject, String property, Node object) {
+		return Triple.create(subject, NodeFactory.createURI("http://www.xes-standard.org/#" + property), object);
+	}
+}
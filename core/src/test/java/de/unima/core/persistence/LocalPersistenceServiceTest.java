@@ -26,6 +26,7 @@ import java.util.Optional;
 
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.system.StreamOps;
 import org.apache.jena.vocabulary.RDFS;
 import org.junit.Before;
 import org.junit.Rule;
@@ -89,6 +90,7 @@ public class LocalPersistenceServiceTest {
 		assertThat(loadedDatapool.getDataBuckets(), hasItem(firstBucket));
 		assertThat(loadedDatapool.getDataBuckets(), hasItem(secondBucket));
 		assertThat(loadedDatapool.getDataBuckets(), hasItem(thirdBucket));
+		assertThat(loadedDatapool.findDataBucketById(firstBucket.getId()).get().getLabel(), is("First bucket"));
 		assertThat(loadedProject.get().getLinkedSchemas(), hasItem(firstSchema));
 		assertThat(loadedProject.get().getLinkedSchemas(), hasItem(secondSchema));
 	}
@@ -118,6 +120,36 @@ public class LocalPersistenceServiceTest {
 		assertThat(after.listStatements().next(), is(not(equalTo(before.listStatements().next()))));
 	}
 	
+	@Test
+	public void whenDataIsStreamedIntoNewDataBucketItShouldContainAllStatements(){
+		final Project project = service.createPersistentProjectWithGeneratedId("Test");
+		final DataPool pool = service.createPeristentDataPoolForProjectWithGeneratedId(project, "Test");
+		final Model data = createModelWithOneStatement().add(createModelWithOneOtherStatement());
+		
+		final DataBucket bucket = service.addDataAsNewDataBucketToDataPool(pool, "Streamed bucket", target -> StreamOps.sendGraphToStream(data.getGraph(), target));
+		
+		assertThat(service.findDataOfDataBucket(bucket).get().isIsomorphicWith(data), is(true));
+		assertThat(service.findDataPoolById(pool.getId()).get().getDataBuckets(), hasItem(bucket));
+	}
+	
+	@Test
+	public void whenStreamingDataFailsNewDataBucketShouldBeRemoved(){
+		final Project project = service.createPersistentProjectWithGeneratedId("Test");
+		final DataPool pool = service.createPeristentDataPoolForProjectWithGeneratedId(project, "Test");
+		
+		try {
+			service.addDataAsNewDataBucketToDataPool(pool, "Broken bucket", target -> {
+				StreamOps.sendGraphToStream(createModelWithOneStatement().getGraph(), target);
+				throw new IllegalStateException("Broken data");
+			});
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage(), is("Broken data"));
+		}
+		
+		assertThat(pool.getDataBuckets().isEmpty(), is(true));
+		assertThat(service.findDataPoolById(pool.getId()).get().getDataBuckets().isEmpty(), is(true));
+	}
+	
 	private Model createModelWithOneOtherStatement() {
 		final Model model = ModelFactory.createDefaultModel();
 		model.createResource("http://www.test.de/House/2").addProperty(RDFS.label, "Second label");
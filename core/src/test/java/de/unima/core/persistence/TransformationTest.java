@@ -18,6 +18,7 @@ package de.unima.core.persistence;
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import java.util.List;
@@ -212,6 +213,25 @@ public class TransformationTest {
 		assertThat(createdHouse, is(house));
 	}
 
+	@Test
+	public void accessorsShouldBeCompiledOncePerClassAndField(){
+		final Function<Object, Object> accessor = Transformation.TransformationSupport.accessorOf(House.class, "noProperty");
+		assertThat(Transformation.TransformationSupport.accessorOf(House.class, "noProperty"), is(sameInstance(accessor)));
+		assertThat(accessor.apply(new House("other", 1)), is("other"));
+	}
+	
+	@Test
+	public void instancesShouldBeCreatedWithTheConstructorMatchingTheArguments(){
+		final House house = Transformation.TransformationSupport.instantiate(House.class, "name", 7);
+		assertThat(house, is(new House("name", 7)));
+	}
+	
+	@Test
+	public void whenNoConstructorMatchesTheArgumentsThenThrowAnIllegalArgumentException(){
+		expected.expect(IllegalArgumentException.class);
+		Transformation.TransformationSupport.instantiate(House.class, 7);
+	}
+
 	public final static class House extends AbstractEntity<String> {
 		
 		private String nullId;
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ *    Copyright 2016 University of Mannheim
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ *******************************************************************************/
+package de.unima.core.persistence;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unima.core.domain.model.DataBucket;
+import de.unima.core.domain.model.DataPool;
+import de.unima.core.domain.model.Project;
+import de.unima.core.domain.model.Schema;
+import de.unima.core.storage.jena.JenaTDBStore;
+
+public class UnitOfWorkTest {
+
+	private PersistenceService service;
+
+	@Before
+	public void setUp(){
+		this.service = new PersistenceService(JenaTDBStore.withUniqueMemoryLocation());
+	}
+	
+	@Test
+	public void whenUnitOfWorkIsNotCommittedThenNothingIsPersisted(){
+		final Schema schema = new Schema("http://www.test.de/Schema/1", "Schema");
+		service.createUnitOfWork().save(schema).addData(schema, createModelWithOneStatement());
+		
+		assertThat(service.findSchemaById(schema.getId()).isPresent(), is(false));
+		assertThat(service.findDataOfSchema(schema).isPresent(), is(false));
+	}
+	
+	@Test
+	public void whenUnitOfWorkIsCommittedThenAllChangesArePersisted(){
+		final Project project = service.createPersistentProjectWithGeneratedId("Project");
+		final DataPool pool = new DataPool("http://www.test.de/DataPool/1", "Pool", project);
+		final DataBucket bucket = new DataBucket("http://www.test.de/DataBucket/1", "Bucket");
+		pool.addDataBucket(bucket);
+		project.addDataPool(pool);
+		
+		service.createUnitOfWork().save(bucket).addData(bucket, createModelWithOneStatement()).save(pool).save(project).commit();
+		
+		assertThat(service.findProjectById(project.getId()).get().getDataPools().size(), is(1));
+		assertThat(service.findDataPoolById(pool.getId()).get().getDataBuckets().size(), is(1));
+		assertThat(service.findDataOfDataBucket(bucket).get().size(), is(1l));
+	}
+	
+	@Test
+	public void whenOneChangeFailsThenNoChangeIsPersisted(){
+		final Schema schema = new Schema("http://www.test.de/Schema/1", "Schema");
+		final UnitOfWork unitOfWork = service.createUnitOfWork().save(schema).addData(schema, createModelWithOneStatement());
+		unitOfWork.addData(new Schema("http://www.test.de/Schema/2", "Broken"), createModelWhichCannotBeRead());
+		
+		try {
+			unitOfWork.commit();
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage(), is("Broken data"));
+		}
+		
+		assertThat(service.findSchemaById(schema.getId()).isPresent(), is(false));
+		assertThat(service.findDataOfSchema(schema).isPresent(), is(false));
+	}
+	
+	@Test
+	public void whenDataIsDeletedThenNumberOfDeletedStatementsIsReturned(){
+		final Schema schema = new Schema("http://www.test.de/Schema/1", "Schema");
+		service.createUnitOfWork().save(schema).addData(schema, createModelWithOneStatement()).commit();
+		
+		final long deletedStatements = service.createUnitOfWork().delete(schema).commit();
+		
+		assertThat(deletedStatements > 1, is(true));
+		assertThat(service.findSchemaById(schema.getId()).isPresent(), is(false));
+	}
+
+	private Model createModelWhichCannotBeRead() {
+		return ModelFactory.createModelForGraph(new GraphBase() {
+			@Override
+			protected ExtendedIterator<Triple> graphBaseFind(Triple triplePattern) {
+				throw new IllegalStateException("Broken data");
+			}
+		});
+	}
+
+	private Model createModelWithOneStatement() {
+		final Model model = ModelFactory.createDefaultModel();
+		model.createResource("http://www.test.de/House/1").addProperty(RDFS.label, "test label");
+		return model;
+	}
+}
@@ -17,21 +17,33 @@ package de.unima.core.storage.jena;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertThat;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.jena.query.Dataset;
 import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.tdb.TDBFactory;
 import org.apache.jena.vocabulary.VCARD;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 
+import de.unima.core.storage.Lock;
 import de.unima.core.storage.StoreConnection;
 import de.unima.core.storage.StoreSupport;
 import de.unima.core.storage.jena.JenaTDBStore.JenaTdbStoreConnection;
@@ -41,6 +53,9 @@ public class JenaTDBStoreTest {
 	@Rule
 	public TemporaryFolder folder = new TemporaryFolder();
 	
+	@Rule
+	public ExpectedException expected = ExpectedException.none();
+	
 	private JenaTDBStore store;
 
 	@Before
@@ -106,4 +121,80 @@ public class JenaTDBStoreTest {
 				.get();
 		assertThat(statements.size(), is(1));
 	}
+	
+	@Test
+	public void eachTransactionShouldBeIdentifiedByItsOwnToken() {
+		final StoreConnection first = store.getConnection();
+		final long firstToken = first.beginTransaction(Lock.READ);
+		first.commitTransaction(firstToken);
+		final StoreConnection second = store.getConnection();
+		final long secondToken = second.beginTransaction(Lock.READ);
+		second.commitTransaction(secondToken);
+		assertThat(firstToken, is(not(secondToken)));
+	}
+	
+	@Test
+	public void transactionShouldOnlyBeCommittedWithItsOwnToken() {
+		final StoreConnection connection = store.getConnection();
+		final long token = connection.beginTransaction(Lock.READ);
+		expected.expect(IllegalArgumentException.class);
+		try {
+			connection.commitTransaction(token + 1);
+		} finally {
+			connection.commitTransaction(token);
+		}
+	}
+	
+	@Test
+	public void whenCommitFailsThenTheCommitFailureShouldBePropagated() {
+		final Dataset dataset = TDBFactory.createDataset();
+		final Dataset failingOnCommit = (Dataset) Proxy.newProxyInstance(Dataset.class.getClassLoader(), new Class<?>[]{Dataset.class}, 
+				(proxy, method, args) -> {
+					if(method.getName().equals("commit")) {
+						throw new IllegalStateException("commit failed");
+					}
+					try {
+						return method.invoke(dataset, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+		final JenaTDBStore failingStore = new JenaTDBStore(() -> failingOnCommit);
+		expected.expectMessage("commit failed");
+		failingStore.writeWithConnection(connection -> connection);
+	}
+	
+	@Test
+	public void nestedReadShouldSeeDataOfSurroundingWrite() {
+		final Long size = store.writeWithConnection(connection -> {
+			connection.as(Dataset.class).get().getDefaultModel().createResource("http://test.de/subject").addProperty(VCARD.FN, "test");
+			return store.readWithConnection(nested -> nested.as(Dataset.class).get().getDefaultModel().size()).get();
+		}).get();
+		assertThat(size, is(1l));
+	}
+	
+	@Test
+	public void readersShouldRunInParallel() throws Exception {
+		final int numberOfReaders = 4;
+		final CountDownLatch allReadersStarted = new CountDownLatch(numberOfReaders);
+		final ExecutorService executor = Executors.newFixedThreadPool(numberOfReaders);
+		try {
+			final List<Future<Optional<Boolean>>> results = new ArrayList<>();
+			for (int i = 0; i < numberOfReaders; i++) {
+				results.add(executor.submit(() -> store.readWithConnection(connection -> {
+					allReadersStarted.countDown();
+					try {
+						return allReadersStarted.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						throw new IllegalStateException(e);
+					}
+				})));
+			}
+			for (Future<Optional<Boolean>> result : results) {
+				assertThat(result.get().get(), is(true));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
 }
@@ -0,0 +1,163 @@
+package tr.com.srdc.ontmalizer;
+
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.ontology.AllValuesFromRestriction;
+import org.apache.jena.ontology.OntClass;
+import org.apache.jena.ontology.OntModel;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.util.iterator.ExtendedIterator;
+
+import tr.com.srdc.ontmalizer.data.TypedResource;
+import tr.com.srdc.ontmalizer.helper.Constants;
+import tr.com.srdc.ontmalizer.helper.NamingUtil;
+import tr.com.srdc.ontmalizer.helper.XSDUtil;
+
+/**
+ * @author de.unima.*
+ *
+ * ObjectTypeIndex memoizes the type lookups of XML2OWLMapper for one ontology.
+ *
+ * The type of an XML element or attribute only depends on the class of its parent
+ * and its local name. Thus, the walk over the super classes and AllValuesFrom restrictions
+ * of the ontology is done once per (class URI, name) pair and shared by all
+ * XML2OWLMapper instances which use the same XSD2OWLMapper.
+ * The index assumes that the ontology is not changed after it has been created.
+ */
+class ObjectTypeIndex {
+
+	private final OntModel ontology;
+	private final String opprefix;
+	private final String dtpprefix;
+
+	private final Map<String, Map<String, Optional<TypedResource>>> objectTypes = new ConcurrentHashMap<>();
+	private final Map<String, TypedResource> resourceTypes = new ConcurrentHashMap<>();
+
+	ObjectTypeIndex(OntModel ontology, String opprefix, String dtpprefix) {
+		this.ontology = ontology;
+		this.opprefix = opprefix;
+		this.dtpprefix = dtpprefix;
+	}
+
+	/**
+	 * @param root
+	 * - class of the parent element
+	 * @param prop
+	 * - local name of the element or attribute
+	 * @return
+	 * - type of the element or attribute; null if it is not defined in the ontology
+	 */
+	TypedResource findObjectType(Resource root, String prop) {
+		if (root.getURI() == null)
+			return computeObjectType(root, prop);
+
+		return objectTypes.computeIfAbsent(root.getURI(), uri -> new ConcurrentHashMap<>())
+				.computeIfAbsent(prop, name -> Optional.ofNullable(computeObjectType(root, name)))
+				.orElse(null);
+	}
+
+	/**
+	 * @param uri
+	 * - URI of a class or a XSD datatype
+	 * @return
+	 * - type of the resource; an empty TypedResource if it is not defined in the ontology
+	 */
+	TypedResource findResourceType(String uri) {
+		return resourceTypes.computeIfAbsent(uri, this::computeResourceType);
+	}
+
+	private TypedResource computeObjectType(Resource root, String prop) {
+		Queue<OntClass> queue = new LinkedList<OntClass>();
+		TypedResource result = new TypedResource();
+
+		String objectPropertyName = NamingUtil.createPropertyName(opprefix, prop);
+		String datatypePropertyName = NamingUtil.createPropertyName(dtpprefix, prop);
+
+		OntClass temp = (OntClass)root;
+
+		while(temp!=null){
+			ExtendedIterator<OntClass> itres = temp.listSuperClasses();
+			while (itres.hasNext()) {
+				OntClass rescl = itres.next();
+				if (rescl.isRestriction()){
+					if (rescl.asRestriction().isAllValuesFromRestriction() ){
+						AllValuesFromRestriction avfres = rescl.asRestriction().asAllValuesFromRestriction();
+						/**
+						 * In some cases, a resource can be both an object and datatype property. If, at the same time
+						 * the prefixes opprefix and dtpprefix are identical, then we have to be careful. We check
+						 * directly the RDF type of the AllValuesFrom restriction in this case.
+						 */
+						if(avfres.getOnProperty().getLocalName().equals(objectPropertyName) &&
+								opprefix.equals(dtpprefix) &&
+								avfres.getOnProperty().isObjectProperty() &&
+								avfres.getOnProperty().isDatatypeProperty()) {
+							result.setDatatype(findResourceType(avfres.getAllValuesFrom().getURI()).isDatatype());
+							result.setResource(avfres.getAllValuesFrom());
+							return result;
+						}
+						else if(avfres.getOnProperty().getLocalName()
+								.equals(objectPropertyName)
+							&& avfres.getOnProperty().isObjectProperty() ) {
+							result.setDatatype(false);
+							result.setResource(avfres.getAllValuesFrom());
+							return result;
+						}
+						else if(avfres.getOnProperty().getLocalName()
+									.equals(datatypePropertyName)
+							&& avfres.getOnProperty().isDatatypeProperty() ) {
+							result.setDatatype(true);
+							result.setResource(avfres.getAllValuesFrom());
+							return result;
+						}
+					}
+				}
+			}
+
+			ExtendedIterator<OntClass> it = temp.listSuperClasses();
+			while (it.hasNext()) {
+				OntClass superCl = it.next();
+				if ( !superCl.isRestriction() && !superCl.isEnumeratedClass() )
+					queue.add(superCl);
+			}
+
+			temp = queue.poll();
+		}
+
+		return null;
+	}
+
+	private TypedResource computeResourceType(String uri) {
+		TypedResource result = new TypedResource();
+
+		if(uri.startsWith(XSDDatatype.XSD)) {
+			result.setDatatype(true);
+			result.setResource(XSDUtil.getXSDResource(uri.substring(uri.lastIndexOf("#"), uri.length())));
+		}
+		else {
+			OntClass cls = ontology.getOntClass(uri);
+			if(cls != null && cls.getRDFType(true).getURI().equals(Constants.OWL_CLASS_URI)) {
+				result.setDatatype(false);
+				result.setResource(cls);
+				return result;
+			}
+
+			// This can be the case, since this function is called from different places
+			if(!uri.endsWith(Constants.DATATYPE_SUFFIX))
+				uri = uri + Constants.DATATYPE_SUFFIX;
+
+			cls = ontology.getOntClass(uri);
+			if(cls != null && cls.getRDFType(true).getURI().equals(Constants.RDFS_TYPE_URI)) {
+				result.setDatatype(true);
+				result.setResource(cls);
+			}
+
+		}
+
+		return result;
+	}
+}
@@ -7,20 +7,26 @@ import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Random;
+import java.util.function.Function;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.apache.jena.datatypes.xsd.XSDDatatype;
-import org.apache.jena.ontology.AllValuesFromRestriction;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
 import org.apache.jena.ontology.OntClass;
 import org.apache.jena.ontology.OntModel;
 import org.apache.jena.rdf.model.Literal;
@@ -30,7 +36,9 @@ import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.RDFWriter;
 import org.apache.jena.rdf.model.ResIterator;
 import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.system.StreamRDF;
 import org.apache.jena.util.iterator.ExtendedIterator;
+import org.apache.jena.util.iterator.NullIterator;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
@@ -43,7 +51,6 @@ import com.google.common.base.Preconditions;
 import tr.com.srdc.ontmalizer.data.TypedResource;
 import tr.com.srdc.ontmalizer.helper.Constants;
 import tr.com.srdc.ontmalizer.helper.NamingUtil;
-import tr.com.srdc.ontmalizer.helper.XSDUtil;
 
 
 /**
@@ -60,10 +67,16 @@ import tr.com.srdc.ontmalizer.helper.XSDUtil;
  * Updated imports to Jena 3.x Version
  * Added methods:
  * 		- public XML2OWLMapper(File xmlFile, OntModel ontology)
+ * 		- public XML2OWLMapper(XSD2OWLMapper mapping)
+ * 		- public XML2OWLMapper(OntModel ontology)
+ * 		- public void convertXML2OWL(InputStream xmlInputStream, StreamRDF output)
  * Changed methods:
  * 		- private void initializeEnvironment(XSD2OWLMapper mapping)
+ * 		- private void traverseAttributes(Node node, Resource subject, Resource subjectType)
  * 		- private void traverseChildren(Node node, Resource subject, Resource subjectType)
  * 		- private TypedResource findObjectType(Resource root, String prop)
+ * 		- private TypedResource findResourceType(String uri)
+ * 		- private void setNSPrefix(Element root)
  */
 
 public class XML2OWLMapper {
@@ -93,6 +106,9 @@ public class XML2OWLMapper {
 //	private ArrayList<OntClass> abstractClasses 	= null;
 	private ArrayList<OntClass> mixedClasses 		= null;
 	
+	// Memoized type lookups shared with other instances using the same mapping
+	private ObjectTypeIndex objectTypeIndex 		= null;
+	
 	private String NS 						= null;
 	private String nsPrefix					= null;
 	
@@ -158,6 +174,31 @@ public class XML2OWLMapper {
 		initializeEnvironment(mapping);
 	}
 	
+	/**
+	 * Creates a new XML2OWLMapper instance which does not parse an XML instance upfront. 
+	 * XML instances are converted in streaming mode with 
+	 * {@link #convertXML2OWL(InputStream, StreamRDF)}.
+	 *  
+	 * @param mapping
+	 * - mapping must be an XSD2OWLMapper instance which wraps 
+	 * the ontology that was created from the schema of the XML instances.
+	 */
+	public XML2OWLMapper(XSD2OWLMapper mapping) {
+		initializeEnvironment(mapping);
+	}
+	
+	/**
+	 * Creates a new XML2OWLMapper instance which does not parse an XML instance upfront. 
+	 * XML instances are converted in streaming mode with 
+	 * {@link #convertXML2OWL(InputStream, StreamRDF)}.
+	 * 
+	 * @param ontology
+	 * - ontology which was created from the schema of the XML instances.
+	 */
+	public XML2OWLMapper(OntModel ontology) {
+		this(new XSD2OWLMapper(ontology));
+	}
+	
 	/**
 	 * Initializes the XML DocumentBuilder variables
 	 * @throws ParserConfigurationException
@@ -206,6 +247,7 @@ public class XML2OWLMapper {
 		
 		this.opprefix = mapping.getObjectPropPrefix();
 		this.dtpprefix = mapping.getDataTypePropPrefix();
+		this.objectTypeIndex = mapping.getObjectTypeIndex();
 	}
 	
 	/**
@@ -237,23 +279,8 @@ public class XML2OWLMapper {
 		if (NS==null)
 			setNSPrefix(root);
 		
-		Preconditions.checkNotNull(NS, "There is no namespace provided for the XML beeing imported.");
-		
-		OntClass rootType = ontology.getOntClass(NS + root.getLocalName());
-		
-		Preconditions.checkNotNull(rootType, "The rootType of XML could not be identified. This may be the case if the base-" 
-				+ "namespace of the underlying XSD and the base-namespace of the XML files do not match or the root element "
-				+ "is used in the XML but is not specified in the XSD.");
-		
-		Resource modelRoot = model.createResource( baseURI 
-												   + Constants.ONTMALIZER_INSTANCE_NAME_PREFIX 
-												   + no 
-												   + "_" 
-												   + root.getLocalName() 
-												   + "_"
-												   + count.get(rootType.getURI())
-												  , rootType );
-		count.put(rootType.getURI(), count.get(rootType.getURI()) + 1);
+		OntClass rootType = findRootType(root.getLocalName());
+		Resource modelRoot = createIndividual(root.getLocalName(), rootType);
 		
 		// First traverse the attributes of the root element
 		traverseAttributes(root, modelRoot, rootType);
@@ -265,18 +292,124 @@ public class XML2OWLMapper {
 		}
 	}
 	
+	/**
+	 * Converts the XML instance read from the given stream without building a DOM. 
+	 * 
+	 * Triples are passed to the output as soon as the corresponding XML element 
+	 * has been read. Only the path from the root to the current element is kept 
+	 * in memory. Thus, the memory consumption does not depend on the size of the 
+	 * XML instance. The produced triples are the same as the ones produced by 
+	 * {@link #convertXML2OWL()}; however, they are not added to {@link #getModel()}.
+	 * 
+	 * @param xmlInputStream
+	 * - XML InputStream to be converted
+	 * @param output
+	 * - receives the converted triples
+	 * @throws XMLStreamException
+	 * - if the XML instance is not well-formed
+	 */
+	public void convertXML2OWL(InputStream xmlInputStream, StreamRDF output) throws XMLStreamException {
+		final Model inMemoryModel = model;
+		model = ModelFactory.createModelForGraph(new StreamRDFGraph(output));
+		model.setNsPrefixes(inMemoryModel);
+		
+		XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+		xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+		XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(xmlInputStream);
+		try {
+			output.start();
+			Deque<StreamedElement> ancestors = new ArrayDeque<StreamedElement>();
+			while (reader.hasNext()) {
+				switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					if (ancestors.isEmpty()) {
+						ancestors.push(startRoot(reader, output));
+					}
+					else {
+						ancestors.push(ancestors.peek().startChild(reader));
+					}
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					if (!ancestors.isEmpty())
+						ancestors.peek().appendText(reader.getText());
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					ancestors.pop().end();
+					break;
+				default:
+					break;
+				}
+			}
+			output.finish();
+		} finally {
+			reader.close();
+			model = inMemoryModel;
+		}
+	}
+	
+	private StreamedElement startRoot(XMLStreamReader reader, StreamRDF output) {
+		// Set namespace and its prefix if it is not set before.
+		if (NS==null)
+			setNSPrefixOfRoot(reader.getNamespaceURI(), reader.getPrefix());
+		
+		Map<String, String> prefixes = model.getNsPrefixMap();
+		for (Map.Entry<String, String> prefix : prefixes.entrySet())
+			output.prefix(prefix.getKey(), prefix.getValue());
+		
+		OntClass rootType = findRootType(reader.getLocalName());
+		Resource modelRoot = createIndividual(reader.getLocalName(), rootType);
+		traverseAttributes(reader, modelRoot, rootType);
+		return new StreamedElement(reader.getLocalName(), modelRoot, rootType, null);
+	}
+	
+	private OntClass findRootType(String rootName) {
+		Preconditions.checkNotNull(NS, "There is no namespace provided for the XML beeing imported.");
+		
+		OntClass rootType = ontology.getOntClass(NS + rootName);
+		
+		Preconditions.checkNotNull(rootType, "The rootType of XML could not be identified. This may be the case if the base-" 
+				+ "namespace of the underlying XSD and the base-namespace of the XML files do not match or the root element "
+				+ "is used in the XML but is not specified in the XSD.");
+		return rootType;
+	}
+	
+	private Resource createIndividual(String name, Resource type) {
+		Resource individual = model.createResource( baseURI 
+												   + name 
+												   + count.get(type.getURI())
+												  , type );
+		count.put(type.getURI(), count.get(type.getURI()) + 1);
+		return individual;
+	}
+	
 	private void traverseAttributes(Node node, Resource subject, Resource subjectType) {
 		NamedNodeMap attributes = node.getAttributes();
 		for(int i=0, length=attributes.getLength() ; i<length ; i++ ) {
-			TypedResource atObjType = findObjectType(subjectType, attributes.item(i).getLocalName());
-			
-			if (atObjType != null) {
-				Property atProp = model.createProperty(NS + NamingUtil.createPropertyName(dtpprefix, attributes.item(i).getLocalName()));
-
-				Literal value = model.createTypedLiteral(attributes.item(i).getNodeValue(), atObjType.getResource().getURI());
-				if (subject!=null)
-					subject.addLiteral(atProp, value);
-			}
+			addAttribute(subject, subjectType, attributes.item(i).getLocalName(), attributes.item(i).getNodeValue());
+		}
+	}
+	
+	private void traverseAttributes(XMLStreamReader reader, Resource subject, Resource subjectType) {
+		// A DOM lists namespace declarations as attributes as well
+		for(int i=0, length=reader.getNamespaceCount() ; i<length ; i++ ) {
+			String prefix = reader.getNamespacePrefix(i);
+			String name = (prefix == null || prefix.equals("")) ? "xmlns" : prefix;
+			addAttribute(subject, subjectType, name, reader.getNamespaceURI(i));
+		}
+		for(int i=0, length=reader.getAttributeCount() ; i<length ; i++ ) {
+			addAttribute(subject, subjectType, reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+		}
+	}
+	
+	private void addAttribute(Resource subject, Resource subjectType, String name, String value) {
+		TypedResource atObjType = findObjectType(subjectType, name);
+		
+		if (atObjType != null && subject != null) {
+			Property atProp = model.createProperty(NS + NamingUtil.createPropertyName(dtpprefix, name));
+			Literal literal = model.createTypedLiteral(value, atObjType.getResource().getURI());
+			subject.addLiteral(atProp, literal);
 		}
 	}
 	
@@ -288,78 +421,24 @@ public class XML2OWLMapper {
 		Resource object = null;
 
 		if (node.getNodeType() == Node.ELEMENT_NODE) {
-			objectType = findObjectType(subjectType, node.getLocalName());
+			Element element = (Element) node;
+			objectType = findElementType(subjectType, node.getLocalName(), 
+					element.getAttributeNS(Constants.XSI_NS, "type"), document::lookupNamespaceURI);
 			
 			if (objectType != null) {
-				
-				/**
-				 * The type of the element might be overridden with the use of xsi:type, 
-				 * if the original type of the element is abstract, or a superclass. Therefore, 
-				 * we have to be sure about the actual type. 
-				 */
-				Element element = (Element) node;
-				String overriddenXsiType = element.getAttributeNS(Constants.XSI_NS, "type");
-				if(overriddenXsiType != null && !overriddenXsiType.equals("")) {
-					String overriddenNS = null;
-					String overriddenType = null;
-					if(overriddenXsiType.contains(":")) {
-						String[] strarr = overriddenXsiType.split(":");
-						String prefix = strarr[0];
-						overriddenType = strarr[1];
-						overriddenNS = document.lookupNamespaceURI(prefix) + "#";
-					}
-					else {
-						overriddenType = overriddenXsiType;
-						overriddenNS = NS;
-					}
-					objectType = findResourceType(overriddenNS + overriddenType);
-				}
-				
 				if(!objectType.isDatatype()) {
-					object = model.createResource( baseURI
-												   + Constants.ONTMALIZER_INSTANCE_NAME_PREFIX
-											       + no
-												   + "_"
-												   + objectType.getResource().getLocalName()
-												   + "_"
-												   + count.get(objectType.getResource().getURI())
-												   , objectType.getResource() );
-					count.put(objectType.getResource().getURI(), count.get(objectType.getResource().getURI()) + 1);
-					
-					Property prop = model.createProperty(NS + NamingUtil.createPropertyName(opprefix, node.getLocalName()));			
-					
-					subject.addProperty(prop, object);
+					object = addObject(subject, node.getLocalName(), objectType);
 				}
 				else if(node.getFirstChild() != null && node.getFirstChild().getNodeValue() != null) {
-					Property prop = model.createProperty(NS + NamingUtil.createPropertyName(dtpprefix, node.getLocalName()));
-					Literal value = model.createTypedLiteral(node.getFirstChild().getNodeValue().trim(), objectType.getResource().getURI());
-					subject.addLiteral(prop, value);
+					addValue(subject, node.getLocalName(), objectType, node.getFirstChild().getNodeValue());
 				}
 				
 				traverseAttributes(node, object, objectType.getResource());
 			}	
-			
-			
-
 		}
 		// This case is only valid for instances of mixed classes
 		else if (node.getNodeType() == Node.TEXT_NODE) {
-			if (node.getNodeValue().trim().equals(""))
-				return;
-			
-			// Check if mixed class 
-			Iterator<OntClass> it = mixedClasses.iterator();
-			while (it.hasNext()) {
-				OntClass mixed = it.next();
-				if ( mixed.getURI().equals(subjectType.getURI()) )
-					break;
-				if (!it.hasNext())
-					return;
-			}
-
-			Property hasTextContent = model.createProperty(NS + NamingUtil.createPropertyName(dtpprefix, Constants.MIXED_CLASS_DEFAULT_PROP_NAME));
-			subject.addProperty(hasTextContent, node.getNodeValue().trim(), XSDDatatype.XSDstring);
-
+			addTextContent(subject, subjectType, node.getNodeValue());
 		}
 		
 		if (object != null){
@@ -371,91 +450,172 @@ public class XML2OWLMapper {
 		
 	}
 	
-	private TypedResource findObjectType(Resource root, String prop) {
-		Queue<OntClass> queue = new LinkedList<OntClass>();
-		TypedResource result = new TypedResource();
-		
-		OntClass temp = (OntClass)root;
-		
-		while(temp!=null){
-			ExtendedIterator<OntClass> itres = temp.listSuperClasses();
-			while (itres.hasNext()) {
-				OntClass rescl = itres.next();
-				if (rescl.isRestriction()){
-					if (rescl.asRestriction().isAllValuesFromRestriction() ){
-						AllValuesFromRestriction avfres = rescl.asRestriction().asAllValuesFromRestriction();
-						/**
-						 * In some cases, a resource can be both an object and datatype property. If, at the same time
-						 * the prefixes opprefix and dtpprefix are identical, then we have to be careful. We check
-						 * directly the RDF type of the AllValuesFrom restriction in this case.
-						 */
-						if(avfres.getOnProperty().getLocalName().equals(NamingUtil.createPropertyName(opprefix, prop)) && 
-								opprefix.equals(dtpprefix) &&
-								avfres.getOnProperty().isObjectProperty() &&
-								avfres.getOnProperty().isDatatypeProperty()) {
-							result.setDatatype(findResourceType(avfres.getAllValuesFrom().getURI()).isDatatype());
-							result.setResource(avfres.getAllValuesFrom());
-							return result;
-						}
-						else if(avfres.getOnProperty().getLocalName()
-								.equals(NamingUtil.createPropertyName(opprefix, prop))
-							&& avfres.getOnProperty().isObjectProperty() ) {
-							result.setDatatype(false);
-							result.setResource(avfres.getAllValuesFrom());
-							return result;
-						}
-						else if(avfres.getOnProperty().getLocalName()
-									.equals(NamingUtil.createPropertyName(dtpprefix, prop)) 
-							&& avfres.getOnProperty().isDatatypeProperty() ) {
-							result.setDatatype(true);
-							result.setResource(avfres.getAllValuesFrom());
-							return result;
-						}
-					}
-				}
+	private TypedResource findElementType(Resource subjectType, String name, String overriddenXsiType, 
+			Function<String, String> namespaceOfPrefix) {
+		TypedResource objectType = findObjectType(subjectType, name);
+		if (objectType == null)
+			return null;
+		
+		/**
+		 * The type of the element might be overridden with the use of xsi:type, 
+		 * if the original type of the element is abstract, or a superclass. Therefore, 
+		 * we have to be sure about the actual type. 
+		 */
+		if(overriddenXsiType != null && !overriddenXsiType.equals("")) {
+			String overriddenNS = null;
+			String overriddenType = null;
+			if(overriddenXsiType.contains(":")) {
+				String[] strarr = overriddenXsiType.split(":");
+				String prefix = strarr[0];
+				overriddenType = strarr[1];
+				overriddenNS = namespaceOfPrefix.apply(prefix) + "#";
 			}
-			
-			ExtendedIterator<OntClass> it = temp.listSuperClasses();
-			while (it.hasNext()) {
-				OntClass superCl = it.next();
-				if ( !superCl.isRestriction() && !superCl.isEnumeratedClass() )
-					queue.add(superCl);
+			else {
+				overriddenType = overriddenXsiType;
+				overriddenNS = NS;
 			}
-			
-			temp = queue.poll();
+			objectType = findResourceType(overriddenNS + overriddenType);
 		}
+		return objectType;
+	}
+	
+	private Resource addObject(Resource subject, String name, TypedResource objectType) {
+		Resource object = createIndividual( Constants.ONTMALIZER_INSTANCE_NAME_PREFIX
+											+ no
+											+ "_"
+											+ objectType.getResource().getLocalName()
+											+ "_"
+										  , objectType.getResource() );
+		Property prop = model.createProperty(NS + NamingUtil.createPropertyName(opprefix, name));			
+		subject.addProperty(prop, object);
+		return object;
+	}
+	
+	private void addValue(Resource subject, String name, TypedResource objectType, String value) {
+		Property prop = model.createProperty(NS + NamingUtil.createPropertyName(dtpprefix, name));
+		Literal literal = model.createTypedLiteral(value.trim(), objectType.getResource().getURI());
+		subject.addLiteral(prop, literal);
+	}
+	
+	private void addTextContent(Resource subject, Resource subjectType, String text) {
+		if (text.trim().equals(""))
+			return;
 		
-		return null;
+		// Check if mixed class 
+		Iterator<OntClass> it = mixedClasses.iterator();
+		while (it.hasNext()) {
+			OntClass mixed = it.next();
+			if ( mixed.getURI().equals(subjectType.getURI()) )
+				break;
+			if (!it.hasNext())
+				return;
+		}
+
+		Property hasTextContent = model.createProperty(NS + NamingUtil.createPropertyName(dtpprefix, Constants.MIXED_CLASS_DEFAULT_PROP_NAME));
+		subject.addProperty(hasTextContent, text.trim(), XSDDatatype.XSDstring);
 	}
 	
-	private TypedResource findResourceType(String uri) {
-		TypedResource result = new TypedResource();
+	/**
+	 * Element on the path from the root to the element which is currently 
+	 * read in streaming mode. It mirrors the decisions of 
+	 * {@link XML2OWLMapper#traverseChildren(Node, Resource, Resource)}: 
+	 * Elements which are mapped to an individual collect mixed text content, 
+	 * elements which are mapped to a datatype collect their first text child and 
+	 * elements which cannot be mapped are skipped together with their children. 
+	 */
+	private class StreamedElement {
 		
-		if(uri.startsWith(XSDDatatype.XSD)) {
-			result.setDatatype(true);
-			result.setResource(XSDUtil.getXSDResource(uri.substring(uri.lastIndexOf("#"), uri.length())));
+		private final String name;
+		private final Resource subject;
+		private final Resource subjectType;
+		private final TypedResource valueType;
+		private final Resource valueSubject;
+		private StringBuilder text = null;
+		private boolean hasChildElement = false;
+		
+		StreamedElement(String name, Resource subject, Resource subjectType, TypedResource valueType) {
+			this(name, subject, subjectType, valueType, null);
 		}
-		else {
-			OntClass cls = ontology.getOntClass(uri);
-			if(cls != null && cls.getRDFType(true).getURI().equals(Constants.OWL_CLASS_URI)) {
-				result.setDatatype(false);
-				result.setResource(cls);
-				return result;
-			}
+		
+		StreamedElement(String name, Resource subject, Resource subjectType, TypedResource valueType, Resource valueSubject) {
+			this.name = name;
+			this.subject = subject;
+			this.subjectType = subjectType;
+			this.valueType = valueType;
+			this.valueSubject = valueSubject;
+		}
+		
+		StreamedElement startChild(final XMLStreamReader reader) {
+			flushTextContent();
+			hasChildElement = true;
+			if (subject == null)
+				return new StreamedElement(reader.getLocalName(), null, null, null);
 			
-			// This can be the case, since this function is called from different places
-			if(!uri.endsWith(Constants.DATATYPE_SUFFIX))
-				uri = uri + Constants.DATATYPE_SUFFIX;
+			TypedResource objectType = findElementType(subjectType, reader.getLocalName(), 
+					reader.getAttributeValue(Constants.XSI_NS, "type"), 
+					prefix -> reader.getNamespaceContext().getNamespaceURI(prefix));
+			if (objectType == null)
+				return new StreamedElement(reader.getLocalName(), null, null, null);
 			
-			cls = ontology.getOntClass(uri);
-			if(cls != null && cls.getRDFType(true).getURI().equals(Constants.RDFS_TYPE_URI)) {
-				result.setDatatype(true);
-				result.setResource(cls);
-			}
-
+			if (objectType.isDatatype())
+				return new StreamedElement(reader.getLocalName(), null, null, objectType, subject);
+			
+			Resource object = addObject(subject, reader.getLocalName(), objectType);
+			traverseAttributes(reader, object, objectType.getResource());
+			return new StreamedElement(reader.getLocalName(), object, objectType.getResource(), null);
+		}
+		
+		void appendText(String characters) {
+			// Datatype elements only keep the text in front of their first child element
+			if (subject == null && (valueType == null || hasChildElement))
+				return;
+			if (text == null)
+				text = new StringBuilder();
+			text.append(characters);
+		}
+		
+		void end() {
+			if (valueType != null && text != null)
+				addValue(valueSubject, name, valueType, text.toString());
+			else
+				flushTextContent();
+		}
+		
+		private void flushTextContent() {
+			if (subject != null && text != null)
+				addTextContent(subject, subjectType, text.toString());
+			text = null;
+		}
+	}
+	
+	/**
+	 * Graph which passes added triples on to a {@link StreamRDF} instead of storing them. 
+	 */
+	private static class StreamRDFGraph extends GraphBase {
+		
+		private final StreamRDF output;
+		
+		StreamRDFGraph(StreamRDF output) {
+			this.output = output;
 		}
 		
-		return result;
+		@Override
+		public void performAdd(Triple t) {
+			output.triple(t);
+		}
+
+		@Override
+		protected ExtendedIterator<Triple> graphBaseFind(Triple triplePattern) {
+			return NullIterator.instance();
+		}
+	}
+	
+	private TypedResource findObjectType(Resource root, String prop) {
+		return objectTypeIndex.findObjectType(root, prop);
+	}
+	
+	private TypedResource findResourceType(String uri) {
+		return objectTypeIndex.findResourceType(uri);
 	}
 	
 	/**
@@ -520,11 +680,15 @@ public class XML2OWLMapper {
 	}
 	
 	private void setNSPrefix(Element root) {
-		NS = root.getNamespaceURI() + "#";
+		setNSPrefixOfRoot(root.getNamespaceURI(), root.getPrefix());
+	}
+	
+	private void setNSPrefixOfRoot(String rootNamespaceURI, String rootPrefix) {
+		NS = rootNamespaceURI + "#";
 		
 		// This part tries to get a prefix. For example, if NS is A/B/C or A:B:C then it will get C.
 		try {
-			URI uri = new URI(root.getNamespaceURI());
+			URI uri = new URI(rootNamespaceURI);
 			
 			if (uri.isAbsolute()) {
 				int last = NS.lastIndexOf('/');
@@ -533,16 +697,16 @@ public class XML2OWLMapper {
 					model.setNsPrefix(nsPrefix, NS);
 				else {
 					// Mustafa: If the XML instance has a prefix already, use it!
-					String xmlNSprefix = root.getPrefix();
+					String xmlNSprefix = rootPrefix;
 					if(xmlNSprefix != null && !xmlNSprefix.equals("")) {
 						model.setNsPrefix(xmlNSprefix, NS);
 					}
 					else if(last!=-1)
-						model.setNsPrefix(root.getNamespaceURI().substring(last+1), NS);
+						model.setNsPrefix(rootNamespaceURI.substring(last+1), NS);
 					else {
 						last = NS.lastIndexOf(':');
 						if (last!=-1)
-							model.setNsPrefix(root.getNamespaceURI().substring(last+1), NS);
+							model.setNsPrefix(rootNamespaceURI.substring(last+1), NS);
 						else 
 							model.setNsPrefix("NS", NS);
 					}
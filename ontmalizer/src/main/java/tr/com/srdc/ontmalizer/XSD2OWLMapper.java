@@ -65,8 +65,11 @@ import tr.com.srdc.ontmalizer.helper.XSDUtil;
  * Updated imports to Jena 3.x Version
  * Added methods:
  * 		- public XSD2OWLMapper(OntModel model)
+ * 		- synchronized ObjectTypeIndex getObjectTypeIndex()
  * Changed methods:
  * 		- public void convertXSD2OWL()
+ * 		- public void setObjectPropPrefix(String opprefix)
+ * 		- public void setDataTypePropPrefix(String dtpprefix)
  * 		- private OntClass convertComplexType(XSComplexType complex, String parentURI)
  * 		- private void convertGroup(XSModelGroup group, OntClass parent)
  * 		- private void convertAttributeGroup(XSAttGroupDecl attGroup)
@@ -96,6 +99,9 @@ public class XSD2OWLMapper {
 
 	private String mainURI 			= null;
 	
+	// Lookup cache shared by all XML2OWLMapper instances which use this mapping
+	private ObjectTypeIndex objectTypeIndex = null;
+	
 	/**
 	 * Creates a new XSD2OWLMapper instance. 
 	 * @param xsdFile
@@ -204,6 +210,7 @@ public class XSD2OWLMapper {
 	 * Converts the XML schema file to an ontology. 
 	 */
 	public void convertXSD2OWL() {
+		objectTypeIndex = null;
 		Iterator<XSSimpleType> simpleTypes = schema.iterateSimpleTypes();
 		while (simpleTypes.hasNext())
 			convertSimpleType(simpleTypes.next(), null);
@@ -909,6 +916,7 @@ public class XSD2OWLMapper {
 	 */
 	public void setObjectPropPrefix(String opprefix) {
 		this.opprefix = opprefix;
+		this.objectTypeIndex = null;
 	}
 	
 	/**
@@ -918,5 +926,17 @@ public class XSD2OWLMapper {
 	 */
 	public void setDataTypePropPrefix(String dtpprefix) {
 		this.dtpprefix = dtpprefix;
+		this.objectTypeIndex = null;
+	}
+	
+	/**
+	 * @return
+	 * - memoized type lookups for the ontology and the current property prefixes. 
+	 * The index is created on first use and shared by all XML2OWLMapper instances using this mapping.
+	 */
+	synchronized ObjectTypeIndex getObjectTypeIndex() {
+		if (objectTypeIndex == null)
+			objectTypeIndex = new ObjectTypeIndex(ontology, opprefix, dtpprefix);
+		return objectTypeIndex;
 	}
 }
@@ -1,16 +1,25 @@
 package de.unima.ontmalizer.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.xml.stream.XMLStreamException;
 
 import org.apache.jena.ontology.OntModel;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.NodeIterator;
 import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.riot.system.StreamRDFLib;
 import org.junit.Test;
 
 import tr.com.srdc.ontmalizer.XML2OWLMapper;
@@ -111,5 +120,32 @@ public class XESImport {
 		assertTrue(values.contains("register request"));
 		assertTrue(values.contains("examine casually"));
 	}
+	
+	@Test
+	public void convertXESToOWLInStreamingModeProducesSameModelAsDOM() throws IOException, XMLStreamException {
+		XSD2OWLMapper schemeMapper = new XSD2OWLMapper(new File("src/test/resources/xes.xsd"));
+		schemeMapper.setObjectPropPrefix("");
+		schemeMapper.setDataTypePropPrefix("");
+		schemeMapper.convertXSD2OWL();
+		
+		XML2OWLMapper domMapper = new XML2OWLMapper(new File("src/test/resources/running-example.xes"), schemeMapper);
+		domMapper.convertXML2OWL();
+		
+		Model streamedModel = ModelFactory.createDefaultModel();
+		XML2OWLMapper streamingMapper = new XML2OWLMapper(schemeMapper);
+		try(InputStream xml = new FileInputStream("src/test/resources/running-example.xes")) {
+			streamingMapper.convertXML2OWL(xml, StreamRDFLib.graph(streamedModel.getGraph()));
+		}
+		
+		assertTrue(streamingMapper.getModel().isEmpty());
+		assertEquals(domMapper.getModel().size(), streamedModel.size());
+		assertEquals(withoutRandomInstanceNumber(domMapper.getModel()), withoutRandomInstanceNumber(streamedModel));
+	}
+	
+	private static Set<String> withoutRandomInstanceNumber(Model model) {
+		return model.listStatements().toList().stream()
+				.map(statement -> statement.toString().replaceAll("INS\\d+_", "INS_"))
+				.collect(Collectors.toSet());
+	}
 
 }